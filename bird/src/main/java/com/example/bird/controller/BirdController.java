@@ -1,16 +1,26 @@
 package com.example.bird.controller;
 
 import com.example.bird.models.Bird;
+import com.example.bird.models.CatalogDelta;
+import com.example.bird.models.ImportReport;
+import com.example.bird.service.BirdImportService;
 import com.example.bird.service.BirdService;
+import com.example.bird.service.CatalogSnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import org.bson.types.ObjectId;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,16 +31,23 @@ import java.util.stream.Collectors;
 @RequestMapping("/birds")
 public class BirdController {
 
+    private static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    // Short freshness window; after that clients and the gateway revalidate for a 304
+    private static final CacheControl CATALOG_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic().mustRevalidate();
+
     private final BirdService birdService;
+    private final BirdImportService birdImportService;
     private final ObjectMapper objectMapper;
     private final Validator validator;
 
     public BirdController(
             BirdService birdService,
+            BirdImportService birdImportService,
             ObjectMapper objectMapper,
             Validator validator
     ) {
         this.birdService = birdService;
+        this.birdImportService = birdImportService;
         this.objectMapper = objectMapper;
         this.validator = validator;
     }
@@ -47,14 +64,33 @@ public class BirdController {
         return ResponseEntity.ok(formattedResults);
     }
 
-    // GET ALL BIRDS
+    // GET ALL BIRDS (precomputed per catalog version; revalidate with If-None-Match)
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllBirds() {
-        List<Bird> birds = birdService.getAllBirds();
-        List<Map<String, Object>> formattedBirds = birds.stream()
-            .map(this::formatBirdResponse)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(formattedBirds);
+    public ResponseEntity<byte[]> getAllBirds(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        CatalogSnapshot catalog = birdService.getCatalog();
+        if (etagMatches(ifNoneMatch, catalog.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CATALOG_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(catalog.getEtag())
+                .cacheControl(CATALOG_CACHE_CONTROL)
+                .header(CATALOG_VERSION_HEADER, String.valueOf(catalog.getVersion()))
+                .body(catalog.getBody());
+    }
+
+    // CATALOG CHANGES SINCE A VERSION: GET /birds?since=<X-Catalog-Version>
+    @GetMapping(params = "since")
+    public ResponseEntity<CatalogDelta> getCatalogChanges(@RequestParam long since) {
+        CatalogDelta delta = birdService.getCatalogChanges(since);
+        return ResponseEntity.ok()
+                .header(CATALOG_VERSION_HEADER, String.valueOf(delta.getVersion()))
+                .body(delta);
     }
 
     // GET BIRD BY ID (USED BY BirdDetail PAGE)
@@ -68,6 +104,19 @@ public class BirdController {
         }
     }
 
+    // GET MANY BY ID (USED BY OTHER SERVICES): POST a JSON array of ids
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getBirdsByIds(@RequestBody List<String> ids) {
+        try {
+            List<Map<String, Object>> formattedBirds = birdService.getBirdsByIds(ids).stream()
+                .map(this::formatBirdResponse)
+                .collect(Collectors.toList());
+            return ResponseEntity.ok(formattedBirds);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // ADD BIRD (MULTIPART)
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> addBirdMultipart(
@@ -96,6 +145,23 @@ public class BirdController {
         }
     }
 
+    // BULK IMPORT: POST /birds/import?format=csv|ndjson with the file as the raw request body.
+    // CSV needs a header row with commonName and scientificName; rows upsert by scientificName.
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<?> importBirds(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body
+    ) {
+        try {
+            ImportReport report = birdImportService.importBirds(body, BirdImportService.Format.parse(format));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Failed to read import: " + e.getMessage());
+        }
+    }
+
     // UPDATE BIRD
     @PatchMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, Object>> updateBirdMultipart(
@@ -123,13 +189,24 @@ public class BirdController {
         return ResponseEntity.ok("Bird deleted successfully");
     }
 
+    // If-None-Match uses weak comparison and may list several tags or *
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Map<String, Object> formatBirdResponse(Bird bird) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("id", bird.getId());
-        response.put("commonName", bird.getCommonName());
-        response.put("scientificName", bird.getScientificName());
-        response.put("imageURL", bird.getImageURL());
-        response.put("location", bird.getLocation());
-        return response;
+        return bird.toSummary();
     }
-}
\ No newline at end of file
+}
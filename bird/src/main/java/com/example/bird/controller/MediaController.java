@@ -0,0 +1,68 @@
+package com.example.bird.controller;
+
+import com.example.bird.service.PresignedUrlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Stable entry point for this service's images. Responses carry /media/{key}
+ * and this endpoint redirects to a presigned S3 url, so the JSON stays small
+ * and the image url itself is cacheable.
+ *
+ * The post, user and bird services build separately and each carry a copy of
+ * this class and of PresignedUrlCache. Keep the copies identical apart from
+ * the package and the owned-prefix property; scripts/check-shared-copies.sh
+ * fails when they drift.
+ */
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    // Must stay below the remaining validity of a cached signature
+    private static final Duration REDIRECT_MAX_AGE = Duration.ofMinutes(10);
+
+    private final PresignedUrlCache presignedUrlCache;
+    private final String bucketName;
+    private final String ownedPrefix;
+
+    public MediaController(
+            PresignedUrlCache presignedUrlCache,
+            @Value("${aws.s3.bucket:}") String bucketName,
+            @Value("${aws.s3.bird-prefix:birds}") String ownedPrefix
+    ) {
+        this.presignedUrlCache = presignedUrlCache;
+        this.bucketName = bucketName;
+        this.ownedPrefix = ownedPrefix;
+    }
+
+    @GetMapping("/{*key}")
+    public ResponseEntity<Void> redirectToObject(@PathVariable String key) {
+        String objectKey = key.startsWith("/") ? key.substring(1) : key;
+
+        // Only sign keys this service owns
+        if (bucketName == null || bucketName.isBlank()
+                || !objectKey.startsWith(ownedPrefix + "/")
+                || objectKey.contains("..")) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            String url = presignedUrlCache.presignedUrl(objectKey);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(url))
+                    .cacheControl(CacheControl.maxAge(REDIRECT_MAX_AGE).cachePublic())
+                    .build();
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
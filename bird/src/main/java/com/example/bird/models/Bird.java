@@ -2,15 +2,26 @@ package com.example.bird.models;
 
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+// Birds without a scientific name are left out of the unique index; created by BirdIndexes
 @Document(collection = "birds")
+@CompoundIndex(
+    name = "scientific_name_unique",
+    def = "{'scientificName': 1}",
+    unique = true,
+    partialFilter = "{'scientificName': {'$type': 'string'}}"
+)
 public class Bird {
 
     @Id
@@ -27,6 +38,10 @@ public class Bird {
 
     private List<Double> location;
 
+    // Catalog version of the last change to this bird; null for birds older than versioning
+    @Indexed
+    private Long catalogVersion;
+
     public Bird() {}
 
     public Bird(String commonName, String scientificName, String imageURL, List<Double> location) {
@@ -79,4 +94,23 @@ public class Bird {
     public void setLocation(List<Double> location) {
         this.location = location;
     }
-}
\ No newline at end of file
+
+    public Long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(Long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    // The shape every /birds endpoint responds with
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", getId());
+        summary.put("commonName", commonName);
+        summary.put("scientificName", scientificName);
+        summary.put("imageURL", imageURL);
+        summary.put("location", location);
+        return summary;
+    }
+}
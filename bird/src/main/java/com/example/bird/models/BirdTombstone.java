@@ -0,0 +1,56 @@
+package com.example.bird.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Marks a deleted bird so catalog deltas can tell clients to drop it.
+ */
+@Document(collection = "bird_tombstones")
+public class BirdTombstone {
+
+    // The deleted bird's id
+    @Id
+    private ObjectId id;
+
+    @Indexed
+    private long catalogVersion;
+
+    private Date deletedAt;
+
+    public BirdTombstone() {}
+
+    public BirdTombstone(ObjectId id, long catalogVersion, Date deletedAt) {
+        this.id = id;
+        this.catalogVersion = catalogVersion;
+        this.deletedAt = deletedAt;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public void setCatalogVersion(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
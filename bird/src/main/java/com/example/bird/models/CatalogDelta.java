@@ -0,0 +1,47 @@
+package com.example.bird.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes to the bird catalog after a given version. Clients apply birds as
+ * upserts, drop the deleted ids, and pass version as since next time.
+ */
+public class CatalogDelta {
+
+    private long version;
+    private List<Map<String, Object>> birds;
+    private List<String> deleted;
+
+    public CatalogDelta() {}
+
+    public CatalogDelta(long version, List<Map<String, Object>> birds, List<String> deleted) {
+        this.version = version;
+        this.birds = birds;
+        this.deleted = deleted;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public List<Map<String, Object>> getBirds() {
+        return birds;
+    }
+
+    public void setBirds(List<Map<String, Object>> birds) {
+        this.birds = birds;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<String> deleted) {
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bird.service;
+
+import com.example.bird.models.ImportReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * CLI mode for bulk imports:
+ *   java -jar bird.jar --spring.main.web-application-type=none --bird.import.file=checklist.csv
+ * The format follows the file extension (.ndjson/.jsonl, otherwise csv) unless
+ * bird.import.format is set. Prints the report and exits non-zero if any row failed.
+ */
+@Component
+@ConditionalOnProperty(name = "bird.import.file")
+public class BirdImportRunner implements ApplicationRunner {
+
+    private final BirdImportService birdImportService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+    private final String format;
+
+    public BirdImportRunner(
+            BirdImportService birdImportService,
+            ObjectMapper objectMapper,
+            ConfigurableApplicationContext context,
+            @Value("${bird.import.file}") String file,
+            @Value("${bird.import.format:}") String format
+    ) {
+        this.birdImportService = birdImportService;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.file = file;
+        this.format = format;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Path.of(file);
+        BirdImportService.Format importFormat = format.isBlank()
+                ? formatFromExtension(path)
+                : BirdImportService.Format.parse(format);
+
+        ImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = birdImportService.importBirds(input, importFormat);
+        }
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        int exitCode = SpringApplication.exit(context, () -> report.getFailed() == 0 ? 0 : 1);
+        System.exit(exitCode);
+    }
+
+    private BirdImportService.Format formatFromExtension(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? BirdImportService.Format.NDJSON
+                : BirdImportService.Format.CSV;
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.ImportReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON taxonomy file into the birds collection. Rows are
+ * read in fixed-size batches, parsed and validated in parallel, then upserted
+ * by scientificName with one unordered bulk write per batch, so memory stays
+ * flat however large the file is. Existing image and location values are kept
+ * when a row leaves them out. A unique index on scientificName keeps two
+ * concurrent imports of the same name from creating two birds.
+ */
+@Service
+public class BirdImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format parse(String value) {
+            String format = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+            return switch (format) {
+                case "csv" -> CSV;
+                case "ndjson", "jsonl" -> NDJSON;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + value);
+            };
+        }
+    }
+
+    // Normalized header name -> field; includes the eBird taxonomy column names
+    private static final Map<String, String> CSV_COLUMNS = Map.ofEntries(
+        Map.entry("commonname", "commonName"),
+        Map.entry("primarycomname", "commonName"),
+        Map.entry("scientificname", "scientificName"),
+        Map.entry("sciname", "scientificName"),
+        Map.entry("imageurl", "imageURL"),
+        Map.entry("latitude", "latitude"),
+        Map.entry("lat", "latitude"),
+        Map.entry("longitude", "longitude"),
+        Map.entry("lng", "longitude"),
+        Map.entry("lon", "longitude")
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final BirdService birdService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public BirdImportService(
+            MongoTemplate mongoTemplate,
+            BirdService birdService,
+            ObjectMapper objectMapper,
+            Validator validator
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.birdService = birdService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    public ImportReport importBirds(InputStream input, Format format) throws IOException {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        // Rows are tagged with the run while batches are written and get their catalog version
+        // in one stamp at the end, so the version is only pending for that last write
+        ObjectId importId = new ObjectId();
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            Map<String, Integer> columns = null;
+            List<RawRow> batch = new ArrayList<>(BATCH_SIZE);
+
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = csvHeader(line);
+                    continue;
+                }
+
+                report.setRowsRead(report.getRowsRead() + 1);
+                batch.add(new RawRow(lineNumber, line));
+                if (batch.size() == BATCH_SIZE) {
+                    writeBatch(batch, format, columns, importId, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, format, columns, importId, report);
+            }
+        } finally {
+            stampCatalogVersion(importId);
+        }
+
+        birdService.loadCatalogChanges();
+        report.setDurationMs(System.currentTimeMillis() - started);
+        return report;
+    }
+
+    // One version for every row the run touched, so a delta client sees the import as a single
+    // change; also runs when the import fails part way, for the rows already written
+    private void stampCatalogVersion(ObjectId importId) {
+        long version = birdService.nextCatalogVersion();
+        try {
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("importId").is(importId)),
+                    new Update().set("catalogVersion", version).unset("importId"),
+                    Bird.class
+            );
+        } finally {
+            birdService.completeCatalogVersion(version);
+        }
+    }
+
+    private void writeBatch(List<RawRow> batch, Format format, Map<String, Integer> columns, ObjectId importId, ImportReport report) {
+        List<ParsedRow> parsed = batch.parallelStream()
+                .map(row -> parse(row, format, columns))
+                .toList();
+
+        // Last row wins when a batch repeats a scientific name
+        Map<String, Bird> valid = new LinkedHashMap<>();
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                report.addError(row.line(), row.error());
+            } else {
+                valid.put(row.bird().getScientificName(), row.bird());
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Bird.class);
+            for (Bird bird : valid.values()) {
+                Update update = new Update()
+                        .set("commonName", bird.getCommonName())
+                        .set("scientificName", bird.getScientificName())
+                        .set("importId", importId);
+                if (bird.getImageURL() != null) {
+                    update.set("imageURL", bird.getImageURL());
+                }
+                if (bird.getLocation() != null) {
+                    update.set("location", bird.getLocation());
+                }
+                bulk.upsert(new Query(Criteria.where("scientificName").is(bird.getScientificName())), update);
+            }
+            BulkWriteResult result = bulk.execute();
+            report.setInserted(report.getInserted() + result.getUpserts().size());
+            report.setUpdated(report.getUpdated() + result.getMatchedCount());
+        }
+
+        System.out.println("Bird import: " + report.getRowsRead() + " rows read, "
+                + report.getInserted() + " inserted, " + report.getUpdated() + " updated, "
+                + report.getFailed() + " failed");
+    }
+
+    private ParsedRow parse(RawRow row, Format format, Map<String, Integer> columns) {
+        try {
+            Bird bird = format == Format.CSV ? fromCsv(row.text(), columns) : fromJson(row.text());
+
+            if (bird.getScientificName() == null || bird.getScientificName().isBlank()) {
+                return new ParsedRow(row.line(), null, "scientificName is required");
+            }
+            Set<ConstraintViolation<Bird>> violations = validator.validate(bird);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .collect(Collectors.joining("; "));
+                return new ParsedRow(row.line(), null, message);
+            }
+            return new ParsedRow(row.line(), bird, null);
+        } catch (Exception e) {
+            return new ParsedRow(row.line(), null, e.getMessage());
+        }
+    }
+
+    private Bird fromCsv(String line, Map<String, Integer> columns) {
+        List<String> cells = csvCells(line);
+        Map<String, String> values = new HashMap<>();
+        columns.forEach((field, index) -> {
+            if (index < cells.size() && !cells.get(index).isBlank()) {
+                values.put(field, cells.get(index).trim());
+            }
+        });
+        return toBird(
+            values.get("commonName"),
+            values.get("scientificName"),
+            values.get("imageURL"),
+            values.get("latitude"),
+            values.get("longitude")
+        );
+    }
+
+    private Bird fromJson(String line) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Row is not a JSON object");
+        }
+
+        JsonNode location = node.path("location");
+        if (location.isArray() && location.size() == 2) {
+            // Stored as [longitude, latitude]
+            return toBird(
+                text(node, "commonName"),
+                text(node, "scientificName"),
+                text(node, "imageURL"),
+                location.get(1).asText(),
+                location.get(0).asText()
+            );
+        }
+        return toBird(
+            text(node, "commonName"),
+            text(node, "scientificName"),
+            text(node, "imageURL"),
+            text(node, "latitude"),
+            text(node, "longitude")
+        );
+    }
+
+    private Bird toBird(String commonName, String scientificName, String imageURL, String latitude, String longitude) {
+        List<Double> location = null;
+        if (latitude != null || longitude != null) {
+            if (latitude == null || longitude == null) {
+                throw new IllegalArgumentException("latitude and longitude must be given together");
+            }
+            try {
+                location = List.of(Double.parseDouble(longitude), Double.parseDouble(latitude));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid coordinates: " + latitude + ", " + longitude);
+            }
+        }
+        return new Bird(
+            commonName == null ? null : commonName.trim(),
+            scientificName == null ? null : scientificName.trim().replaceAll("\\s+", " "),
+            imageURL,
+            location
+        );
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().isBlank() ? null : value.asText();
+    }
+
+    private Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> headers = csvCells(line.replace("\uFEFF", ""));
+        for (int i = 0; i < headers.size(); i++) {
+            String key = headers.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            String field = CSV_COLUMNS.get(key);
+            if (field != null) {
+                columns.putIfAbsent(field, i);
+            }
+        }
+        if (!columns.containsKey("commonName") || !columns.containsKey("scientificName")) {
+            throw new IllegalArgumentException("CSV header must include commonName and scientificName columns");
+        }
+        return columns;
+    }
+
+    // RFC 4180 cells within one line: quoted cells may contain commas and "" escapes
+    static List<String> csvCells(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private record RawRow(long line, String text) {}
+
+    private record ParsedRow(long line, Bird bird, String error) {}
+}
@@ -0,0 +1,44 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.BirdTombstone;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the bird models. This service does not
+ * turn on auto-index-creation, so they are built here at startup; creating an
+ * index that already exists is a no-op. A failure is logged per model rather
+ * than stopping the service, since reads still work without the index.
+ */
+@Component
+public class BirdIndexes {
+
+    private static final List<Class<?>> INDEXED = List.of(Bird.class, BirdTombstone.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public BirdIndexes(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> type : INDEXED) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(type);
+                resolver.resolveIndexFor(type).forEach(indexOps::createIndex);
+            } catch (Exception e) {
+                System.err.println("Creating indexes for " + type.getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable search structure over one catalog snapshot. Names are normalized
+ * (lowercase, accents and punctuation stripped) and indexed three ways: a
+ * sorted name array for whole-name prefixes, a sorted word array with
+ * postings for per-word prefixes and typo matching, and trigram postings for
+ * substrings. Built once per snapshot and read without locking.
+ */
+final class BirdSearchIndex {
+
+    // Lower is better
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+    private static final int FUZZY = 4;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private final List<Bird> birds;
+    private final String[][] birdNames;
+
+    // Tie-break within a tier: shorter common names first, then alphabetical
+    private final int[] order;
+    private final int[] byOrder;
+
+    private final String[] names;
+    private final int[] nameBirds;
+
+    private final String[] words;
+    private final long[] wordLetters;
+    private final int[][] wordBirds;
+
+    private final Map<String, int[]> trigramBirds;
+
+    BirdSearchIndex(List<Bird> birds) {
+        this.birds = List.copyOf(birds);
+        this.birdNames = new String[this.birds.size()][];
+
+        List<Map.Entry<String, Integer>> nameEntries = new ArrayList<>();
+        // Birds are visited in index order, so each posting list is built already sorted
+        TreeMap<String, Postings> wordPostings = new TreeMap<>();
+        Map<String, Postings> trigramPostings = new HashMap<>();
+
+        for (int i = 0; i < this.birds.size(); i++) {
+            Bird bird = this.birds.get(i);
+            List<String> normalized = new ArrayList<>(2);
+            for (String raw : new String[] { bird.getCommonName(), bird.getScientificName() }) {
+                String name = normalize(raw);
+                if (name.isEmpty()) {
+                    continue;
+                }
+                normalized.add(name);
+                nameEntries.add(Map.entry(name, i));
+                for (String word : name.split(" ")) {
+                    wordPostings.computeIfAbsent(word, key -> new Postings()).add(i);
+                }
+                for (int start = 0; start + 3 <= name.length(); start++) {
+                    trigramPostings.computeIfAbsent(name.substring(start, start + 3), key -> new Postings()).add(i);
+                }
+            }
+            birdNames[i] = normalized.toArray(String[]::new);
+        }
+
+        this.byOrder = IntStream.range(0, this.birds.size())
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(bird -> commonName(bird).length())
+                        .thenComparing(this::commonName))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.order = new int[byOrder.length];
+        for (int rank = 0; rank < byOrder.length; rank++) {
+            order[byOrder[rank]] = rank;
+        }
+
+        nameEntries.sort(Map.Entry.comparingByKey());
+        this.names = new String[nameEntries.size()];
+        this.nameBirds = new int[nameEntries.size()];
+        for (int i = 0; i < nameEntries.size(); i++) {
+            names[i] = nameEntries.get(i).getKey();
+            nameBirds[i] = nameEntries.get(i).getValue();
+        }
+
+        this.words = wordPostings.keySet().toArray(String[]::new);
+        this.wordLetters = Arrays.stream(words).mapToLong(BirdSearchIndex::letters).toArray();
+        this.wordBirds = wordPostings.values().stream().map(Postings::toArray).toArray(int[][]::new);
+
+        this.trigramBirds = new HashMap<>(trigramPostings.size() * 2);
+        trigramPostings.forEach((trigram, postings) -> trigramBirds.put(trigram, postings.toArray()));
+    }
+
+    int size() {
+        return birds.size();
+    }
+
+    // Birds are shared with other readers and must not be modified
+    List<Bird> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        // Tiers are tried best first; once one fills the page, worse tiers can't place
+        Map<Integer, Integer> scores = new HashMap<>();
+
+        for (int i = lowerBound(names, q); i < names.length && names[i].startsWith(q); i++) {
+            score(scores, nameBirds[i], names[i].length() == q.length() ? EXACT : NAME_PREFIX);
+        }
+
+        String[] queryWords = q.split(" ");
+        if (scores.size() < limit) {
+            matchWords(queryWords, false).forEach((bird, edits) -> score(scores, bird, WORD_PREFIX));
+        }
+
+        if (scores.size() < limit && q.length() >= 3) {
+            for (int bird : substringCandidates(q)) {
+                for (String name : birdNames[bird]) {
+                    if (name.contains(q)) {
+                        score(scores, bird, SUBSTRING);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (scores.size() < limit) {
+            matchWords(queryWords, true).forEach((bird, edits) -> score(scores, bird, FUZZY + edits));
+        }
+
+        // Score in the high half, precomputed name order in the low half
+        long[] ranked = new long[scores.size()];
+        int next = 0;
+        for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+            ranked[next++] = ((long) entry.getValue() << 32) | order[entry.getKey()];
+        }
+        Arrays.sort(ranked);
+
+        List<Bird> results = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int i = 0; i < ranked.length && i < limit; i++) {
+            results.add(birds.get(byOrder[(int) ranked[i]]));
+        }
+        return results;
+    }
+
+    // Every query word must match some word of a bird's names; the last may be a prefix.
+    // Returns bird -> total edits used.
+    private Map<Integer, Integer> matchWords(String[] queryWords, boolean fuzzy) {
+        Map<Integer, Integer> result = null;
+
+        for (int qi = 0; qi < queryWords.length; qi++) {
+            String queryWord = queryWords[qi];
+            boolean prefix = qi == queryWords.length - 1;
+            int maxEdits = fuzzy ? maxEdits(queryWord) : 0;
+
+            Map<Integer, Integer> matches = new HashMap<>();
+            if (maxEdits == 0) {
+                if (prefix) {
+                    for (int w = lowerBound(words, queryWord); w < words.length && words[w].startsWith(queryWord); w++) {
+                        addMatches(matches, wordBirds[w], 0);
+                    }
+                } else {
+                    int w = Arrays.binarySearch(words, queryWord);
+                    if (w >= 0) {
+                        addMatches(matches, wordBirds[w], 0);
+                    }
+                }
+            } else {
+                long queryLetters = letters(queryWord);
+                for (int w = 0; w < words.length; w++) {
+                    // Each edit can account for at most one query letter the word lacks
+                    if (Long.bitCount(queryLetters & ~wordLetters[w]) > maxEdits) {
+                        continue;
+                    }
+                    int edits = editDistance(queryWord, words[w], maxEdits, prefix);
+                    if (edits <= maxEdits) {
+                        addMatches(matches, wordBirds[w], edits);
+                    }
+                }
+            }
+
+            if (result == null) {
+                result = matches;
+            } else {
+                Map<Integer, Integer> both = new HashMap<>();
+                for (Map.Entry<Integer, Integer> entry : result.entrySet()) {
+                    Integer edits = matches.get(entry.getKey());
+                    if (edits != null) {
+                        both.put(entry.getKey(), entry.getValue() + edits);
+                    }
+                }
+                result = both;
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result == null ? Map.of() : result;
+    }
+
+    private int[] substringCandidates(String q) {
+        int[] candidates = null;
+        for (int start = 0; start + 3 <= q.length(); start++) {
+            int[] postings = trigramBirds.get(q.substring(start, start + 3));
+            if (postings == null) {
+                return new int[0];
+            }
+            candidates = candidates == null ? postings : intersect(candidates, postings);
+            if (candidates.length == 0) {
+                break;
+            }
+        }
+        return candidates == null ? new int[0] : candidates;
+    }
+
+    private String commonName(int bird) {
+        String name = birds.get(bird).getCommonName();
+        return name == null ? "" : name;
+    }
+
+    private static int maxEdits(String word) {
+        if (word.length() < 4) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    private static void score(Map<Integer, Integer> scores, int bird, int score) {
+        scores.merge(bird, score, Math::min);
+    }
+
+    private static void addMatches(Map<Integer, Integer> matches, int[] postings, int edits) {
+        for (int bird : postings) {
+            matches.merge(bird, edits, Math::min);
+        }
+    }
+
+    // Optimal string alignment distance, giving up once it must exceed maxEdits.
+    // With prefix set, b only needs to start with something close to a.
+    static int editDistance(String a, String b, int maxEdits, boolean prefix) {
+        int n = a.length();
+        int m = prefix ? Math.min(b.length(), n + maxEdits) : b.length();
+        if (prefix ? m < n - maxEdits : Math.abs(n - m) > maxEdits) {
+            return maxEdits + 1;
+        }
+
+        int[] before = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, before[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        if (!prefix) {
+            return previous[m];
+        }
+        int best = previous[0];
+        for (int j = 1; j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String lower = MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(lower).replaceAll(" ").trim();
+    }
+
+    // One bit per distinct letter or digit
+    private static long letters(String word) {
+        long mask = 0;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                mask |= 1L << (c - 'a');
+            } else if (c >= '0' && c <= '9') {
+                mask |= 1L << (26 + c - '0');
+            }
+        }
+        return mask;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] out = new int[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                out[k++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    // Growable sorted bird list; a bird added twice in a row is kept once
+    private static final class Postings {
+
+        private int[] birds = new int[4];
+        private int size;
+
+        void add(int bird) {
+            if (size > 0 && birds[size - 1] == bird) {
+                return;
+            }
+            if (size == birds.length) {
+                birds = Arrays.copyOf(birds, size * 2);
+            }
+            birds[size++] = bird;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(birds, size);
+        }
+    }
+}
@@ -1,74 +1,143 @@
 package com.example.bird.service;
 
 import com.example.bird.models.Bird;
+import com.example.bird.models.BirdTombstone;
+import com.example.bird.models.CatalogDelta;
 import com.example.bird.repository.BirdDAO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class BirdService {
 
+    private static final String MEDIA_PATH_PREFIX = "/media/";
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final int SEARCH_LIMIT = 20;
+    private static final String CATALOG_VERSION_COLLECTION = "catalog_versions";
+    // A version still pending after this long belongs to a writer that died
+    static final Duration PENDING_TIMEOUT = Duration.ofMinutes(10);
+
     private final BirdDAO birdDAO;
     private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
     private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
     private final String bucketName;
     private final String birdPrefix;
 
+    // Immutable snapshots, swapped whole, so readers need no locking
+    private final AtomicReference<CatalogSnapshot> catalog = new AtomicReference<>();
+
     public BirdService(
             BirdDAO birdDAO,
             MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
             S3Client s3Client,
-            S3Presigner s3Presigner,
             @Value("${aws.s3.bucket:birdbook-images}") String bucketName,
             @Value("${aws.s3.bird-prefix:birds}") String birdPrefix
     ) {
         this.birdDAO = birdDAO;
         this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
         this.s3Client = s3Client;
-        this.s3Presigner = s3Presigner;
         this.bucketName = bucketName;
         this.birdPrefix = birdPrefix;
     }
 
-    // SEARCH (optional, does not break anything)
+    // SEARCH (served from the in-memory catalog, ranked, typo tolerant)
     public List<Bird> searchBirds(String query) {
-        Query mongoQuery = new Query();
-        Criteria criteria = new Criteria().orOperator(
-                Criteria.where("commonName").regex(query, "i"),
-                Criteria.where("scientificName").regex(query, "i")
-        );
-        mongoQuery.addCriteria(criteria);
-        mongoQuery.limit(20);
-        return mongoTemplate.find(mongoQuery, Bird.class)
-            .stream()
-            .map(this::withResolvedImageUrl)
-            .toList();
+        return getCatalog().getSearchIndex().search(query, SEARCH_LIMIT);
     }
 
-    // GET ALL
-    public List<Bird> getAllBirds() {
-        return birdDAO.findAll()
+    // CATALOG (current snapshot; GET /birds serves its precomputed body)
+    public CatalogSnapshot getCatalog() {
+        CatalogSnapshot snapshot = catalog.get();
+        if (snapshot == null) {
+            refreshCatalog();
+            snapshot = catalog.get();
+        }
+        return snapshot;
+    }
+
+    // CATALOG CHANGES after a version the client already has
+    public CatalogDelta getCatalogChanges(long since) {
+        CatalogSnapshot snapshot = getCatalog();
+        List<Map<String, Object>> changed = snapshot.getBirds().stream()
+                .filter(bird -> CatalogSnapshot.versionOf(bird) > since)
+                .map(Bird::toSummary)
+                .toList();
+        List<String> deleted = snapshot.getTombstones().stream()
+                .filter(tombstone -> tombstone.getCatalogVersion() > since)
+                .map(tombstone -> tombstone.getId().toHexString())
+                .toList();
+        return new CatalogDelta(snapshot.getVersion(), changed, deleted);
+    }
+
+    // Reloads the whole catalog on an interval so other instances' changes and birds older
+    // than versioning are picked up. A reload that raced a newer local change is dropped.
+    // The watermark is read before the birds, so everything at or below it is in the load.
+    @Scheduled(fixedDelayString = "${bird.catalog.refresh-interval-ms:300000}")
+    public void refreshCatalog() {
+        long version = committedCatalogVersion();
+        List<Bird> birds = birdDAO.findAll()
+                .stream()
+                .map(this::withResolvedImageUrl)
+                .toList();
+        List<BirdTombstone> tombstones = mongoTemplate.findAll(BirdTombstone.class);
+        CatalogSnapshot fresh = new CatalogSnapshot(version, birds, tombstones, objectMapper);
+        catalog.accumulateAndGet(fresh, (current, next) ->
+                current == null || next.getVersion() >= current.getVersion() ? next : current);
+        dropAbandonedVersions();
+    }
+
+    // Loads only the birds and deletions newer than the current snapshot and merges them in;
+    // runs after every local change instead of a full reload
+    void loadCatalogChanges() {
+        CatalogSnapshot current = catalog.get();
+        if (current == null) {
+            return;
+        }
+        long since = current.getVersion();
+        long version = committedCatalogVersion();
+        List<Bird> changed = mongoTemplate.find(new Query(Criteria.where("catalogVersion").gt(since)), Bird.class)
                 .stream()
                 .map(this::withResolvedImageUrl)
                 .toList();
+        List<BirdTombstone> deleted = mongoTemplate.find(
+                new Query(Criteria.where("catalogVersion").gt(since)), BirdTombstone.class);
+        if (changed.isEmpty() && deleted.isEmpty() && version <= since) {
+            return;
+        }
+        catalog.updateAndGet(snapshot -> snapshot.withChanges(changed, deleted, version));
+    }
+
+    // GET ALL (shared snapshot; do not modify the returned birds)
+    public List<Bird> getAllBirds() {
+        return getCatalog().getBirds();
     }
 
     // GET BY ID
@@ -78,6 +147,31 @@ public class BirdService {
         return withResolvedImageUrl(bird);
     }
 
+    // GET MANY BY ID (one query; ids that don't exist are left out)
+    public List<Bird> getBirdsByIds(List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids per batch");
+        }
+
+        List<ObjectId> birdIds = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid bird id: " + id);
+            }
+            birdIds.add(new ObjectId(id));
+        }
+        if (birdIds.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = new Query(Criteria.where("_id").in(birdIds));
+        query.fields().include("commonName", "scientificName", "imageURL", "location");
+        return mongoTemplate.find(query, Bird.class)
+                .stream()
+                .map(this::withResolvedImageUrl)
+                .toList();
+    }
+
     // GET BY COMMON NAME
     public Bird getBirdByCommonName(String commonName) {
         Bird bird = birdDAO.findByCommonName(commonName);
@@ -90,7 +184,16 @@ public class BirdService {
             String imageKey = uploadImageToS3(imageFile);
             newBird.setImageURL(imageKey);
         }
-        return withResolvedImageUrl(birdDAO.save(newBird));
+        long version = nextCatalogVersion();
+        Bird savedBird;
+        try {
+            newBird.setCatalogVersion(version);
+            savedBird = birdDAO.save(newBird);
+        } finally {
+            completeCatalogVersion(version);
+        }
+        loadCatalogChanges();
+        return withResolvedImageUrl(savedBird);
     }
 
     // UPDATE
@@ -108,7 +211,16 @@ public class BirdService {
             existingBird.setImageURL(imageKey);
         }
 
-        return withResolvedImageUrl(birdDAO.save(existingBird));
+        long version = nextCatalogVersion();
+        Bird savedBird;
+        try {
+            existingBird.setCatalogVersion(version);
+            savedBird = birdDAO.save(existingBird);
+        } finally {
+            completeCatalogVersion(version);
+        }
+        loadCatalogChanges();
+        return withResolvedImageUrl(savedBird);
     }
 
     // DELETE
@@ -117,7 +229,76 @@ public class BirdService {
                 .orElseThrow(() -> new IllegalArgumentException("Bird not found"));
 
         deleteImageIfManagedByS3(existingBird.getImageURL());
-        birdDAO.deleteById(id);
+        long version = nextCatalogVersion();
+        try {
+            mongoTemplate.save(new BirdTombstone(id, version, new Date()));
+            birdDAO.deleteById(id);
+        } finally {
+            completeCatalogVersion(version);
+        }
+        loadCatalogChanges();
+    }
+
+    // Shared counter so versions stay ordered across instances. Versions are taken before the
+    // write they stamp and can commit out of order, so each is recorded as pending in the same
+    // atomic update and must be passed to completeCatalogVersion once its write is done.
+    long nextCatalogVersion() {
+        Date now = new Date();
+        AggregationUpdate take = AggregationUpdate.from(List.of(
+                context -> new Document("$set", new Document("version",
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)))),
+                context -> new Document("$set", new Document("pending", new Document("$concatArrays", List.of(
+                        new Document("$ifNull", List.of("$pending", List.of())),
+                        List.of(new Document("v", "$version").append("at", now))
+                ))))
+        ));
+        Document counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is("birds")),
+                take,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class,
+                CATALOG_VERSION_COLLECTION
+        );
+        return counter.get("version", Number.class).longValue();
+    }
+
+    void completeCatalogVersion(long version) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is("birds")),
+                new Update().pull("pending", new Document("v", version)),
+                CATALOG_VERSION_COLLECTION
+        );
+    }
+
+    // Pending versions past the timeout no longer hold the watermark back; this only keeps
+    // the counter document from collecting them
+    private void dropAbandonedVersions() {
+        Date cutoff = new Date(System.currentTimeMillis() - PENDING_TIMEOUT.toMillis());
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is("birds")),
+                new Update().pull("pending", new Document("at", new Document("$lt", cutoff))),
+                CATALOG_VERSION_COLLECTION
+        );
+    }
+
+    // The highest version with every write at or below it finished: one below the oldest
+    // pending version, or the counter when nothing is pending. Snapshots report this rather
+    // than the highest version they hold, so a client asking for changes since it never
+    // skips a write that was still in flight.
+    long committedCatalogVersion() {
+        Document counter = mongoTemplate.findOne(
+                new Query(Criteria.where("_id").is("birds")), Document.class, CATALOG_VERSION_COLLECTION);
+        if (counter == null) {
+            return 0;
+        }
+        long committed = counter.get("version", Number.class).longValue();
+        Date cutoff = new Date(System.currentTimeMillis() - PENDING_TIMEOUT.toMillis());
+        for (Document pending : counter.getList("pending", Document.class, List.of())) {
+            if (pending.getDate("at").after(cutoff)) {
+                committed = Math.min(committed, pending.get("v", Number.class).longValue() - 1);
+            }
+        }
+        return committed;
     }
 
     private String uploadImageToS3(MultipartFile imageFile) {
@@ -160,30 +341,12 @@ public class BirdService {
         }
 
         String imageReference = bird.getImageURL();
-        if (imageReference.startsWith("http://") || imageReference.startsWith("https://")) {
+        if (imageReference.startsWith("http://") || imageReference.startsWith("https://") || imageReference.startsWith("/")) {
             return bird;
         }
 
-        try {
-            requireS3Configured();
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(imageReference)
-                    .build();
-
-            GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofHours(1))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            String presignedUrl = s3Presigner.presignGetObject(getObjectPresignRequest)
-                    .url()
-                    .toExternalForm();
-            bird.setImageURL(presignedUrl);
-        } catch (Exception ignored) {
-        }
-
+        // Stable path served by MediaController, which redirects to a presigned url
+        bird.setImageURL(MEDIA_PATH_PREFIX + imageReference);
         return bird;
     }
 
@@ -0,0 +1,135 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.BirdTombstone;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One immutable view of the bird catalog: the birds, the deletions, the
+ * search index, and the GET /birds body already serialized. The index and the
+ * body are built on first use, so a run of writes that each replace the
+ * snapshot only pays for them once someone reads. The ETag hashes the body,
+ * so equal tags always mean identical bytes, even across instances.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final List<Bird> birds;
+    private final List<BirdTombstone> tombstones;
+    private final ObjectMapper objectMapper;
+
+    private volatile BirdSearchIndex searchIndex;
+    private volatile Rendered rendered;
+
+    // version is the committed watermark the contents were read at, not the highest version
+    // they contain; later versions may already be present and are sent again in deltas
+    CatalogSnapshot(long version, List<Bird> birds, List<BirdTombstone> tombstones, ObjectMapper objectMapper) {
+        this.version = version;
+        this.birds = List.copyOf(birds);
+        this.tombstones = List.copyOf(tombstones);
+        this.objectMapper = objectMapper;
+    }
+
+    static long versionOf(Bird bird) {
+        return bird.getCatalogVersion() == null ? 0 : bird.getCatalogVersion();
+    }
+
+    // A new snapshot with changed birds replaced or appended and deleted ones dropped, at the
+    // higher of the two watermarks. Merges may arrive out of order, so an older copy of a bird
+    // never replaces a newer one and a deleted bird never comes back.
+    CatalogSnapshot withChanges(List<Bird> changed, List<BirdTombstone> deleted, long committedVersion) {
+        long nextVersion = Math.max(version, committedVersion);
+        if (changed.isEmpty() && deleted.isEmpty()) {
+            CatalogSnapshot next = new CatalogSnapshot(nextVersion, birds, tombstones, objectMapper);
+            next.searchIndex = searchIndex;
+            return next;
+        }
+
+        Map<ObjectId, BirdTombstone> allTombstones = new LinkedHashMap<>();
+        tombstones.forEach(tombstone -> allTombstones.put(tombstone.getId(), tombstone));
+        deleted.forEach(tombstone -> allTombstones.put(tombstone.getId(), tombstone));
+
+        Map<ObjectId, Bird> merged = new LinkedHashMap<>();
+        birds.forEach(bird -> merged.put(bird.getObjectId(), bird));
+        for (Bird bird : changed) {
+            merged.merge(bird.getObjectId(), bird,
+                    (current, incoming) -> versionOf(incoming) >= versionOf(current) ? incoming : current);
+        }
+        merged.keySet().removeAll(allTombstones.keySet());
+
+        return new CatalogSnapshot(
+                nextVersion, new ArrayList<>(merged.values()), new ArrayList<>(allTombstones.values()), objectMapper);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Shared with every reader; do not modify
+    public List<Bird> getBirds() {
+        return birds;
+    }
+
+    public List<BirdTombstone> getTombstones() {
+        return tombstones;
+    }
+
+    BirdSearchIndex getSearchIndex() {
+        BirdSearchIndex index = searchIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = searchIndex;
+                if (index == null) {
+                    index = new BirdSearchIndex(birds);
+                    searchIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Shared with every reader; do not modify
+    public byte[] getBody() {
+        return rendered().body();
+    }
+
+    public String getEtag() {
+        return rendered().etag();
+    }
+
+    private Rendered rendered() {
+        Rendered result = rendered;
+        if (result == null) {
+            synchronized (this) {
+                result = rendered;
+                if (result == null) {
+                    result = render();
+                    rendered = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Rendered render() {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(birds.stream().map(Bird::toSummary).toList());
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new Rendered(body, "\"" + version + "-" + HexFormat.of().formatHex(digest, 0, 8) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to serialize bird catalog", e);
+        }
+    }
+
+    private record Rendered(byte[] body, String etag) {}
+}
@@ -0,0 +1,104 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.ImportReport;
+import com.example.bird.repository.BirdDAO;
+import com.example.bird.support.MongoTestSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class BirdImportServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BirdService birdService;
+    private BirdImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        new BirdIndexes(mongoTemplate).createIndexes();
+        BirdDAO birdDAO = new MongoRepositoryFactory(mongoTemplate).getRepository(BirdDAO.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        birdService = new BirdService(birdDAO, mongoTemplate, objectMapper, mock(S3Client.class), "", "birds");
+        importService = new BirdImportService(
+                mongoTemplate, birdService, objectMapper, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void everyImportedRowGetsOneVersionTakenAfterTheLastBatch() throws IOException {
+        int rows = BirdImportService.BATCH_SIZE * 2 + 7;
+        long before = birdService.nextCatalogVersion();
+        birdService.completeCatalogVersion(before);
+
+        ImportReport report = importService.importBirds(csv(rows), BirdImportService.Format.CSV);
+
+        assertEquals(rows, report.getInserted());
+        List<Object> versions = mongoTemplate.findDistinct(new Query(), "catalogVersion", Bird.class, Object.class);
+        assertEquals(List.of(before + 1), versions.stream().map(v -> ((Number) v).longValue()).toList());
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("importId").exists(true)), Bird.class));
+        assertEquals(before + 1, birdService.committedCatalogVersion());
+    }
+
+    @Test
+    void rowsWrittenBeforeAFailureAreStillStamped() {
+        InputStream failing = new SequenceInputStream(csv(BirdImportService.BATCH_SIZE), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+
+        assertThrows(IOException.class, () -> importService.importBirds(failing, BirdImportService.Format.CSV));
+
+        assertEquals(BirdImportService.BATCH_SIZE,
+                mongoTemplate.count(new Query(Criteria.where("catalogVersion").exists(true)), Bird.class));
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("importId").exists(true)), Bird.class));
+    }
+
+    @Test
+    void scientificNamesAreUniqueButMayBeMissing() {
+        mongoTemplate.insert(new Bird("Robin", "Erithacus rubecula", null, null));
+
+        assertThrows(DuplicateKeyException.class,
+                () -> mongoTemplate.insert(new Bird("European Robin", "Erithacus rubecula", null, null)));
+
+        mongoTemplate.getCollection("birds").insertMany(List.of(
+                new Document("commonName", "Unnamed one"),
+                new Document("commonName", "Unnamed two")));
+        assertEquals(3, mongoTemplate.count(new Query(), Bird.class));
+    }
+
+    private static InputStream csv(int rows) {
+        StringBuilder csv = new StringBuilder("commonName,scientificName\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("Bird ").append(i).append(",Genus species").append(i).append('\n');
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression benchmark for /birds/search. The baseline is the pre-index
+ * search, a case-insensitive regex over both names of every bird, run here in
+ * memory so the comparison needs no database. The index must have a lower
+ * median per query, and must stay within an absolute budget even though it
+ * also ranks and tolerates typos.
+ */
+@Tag("benchmark")
+class BirdSearchIndexBenchmarkTest {
+
+    private static final int BIRDS = 20_000;
+    private static final int LIMIT = 20;
+    private static final int WARMUP = 200;
+    private static final int RUNS = 1000;
+    // Index median must be at most this fraction of the baseline median
+    private static final double MAX_RATIO = 1.0;
+    private static final long MAX_MEDIAN_NANOS = 2_000_000;
+
+    private static final String[] ADJECTIVES = {
+            "Common", "Great", "Little", "Northern", "Southern", "Eastern", "Western", "Black-capped",
+            "Red-winged", "Yellow-rumped", "Spotted", "Crested", "Pied", "Rufous", "Grey", "Olive"
+    };
+    private static final String[] NOUNS = {
+            "Robin", "Warbler", "Sparrow", "Thrush", "Heron", "Kingfisher", "Woodpecker", "Flycatcher",
+            "Finch", "Tanager", "Swallow", "Owl", "Hawk", "Plover", "Sandpiper", "Wren"
+    };
+    // Prefix, whole word, second word, substring, and typo queries
+    private static final String[] QUERIES = {
+            "rob", "warbler", "northern wren", "ingfish", "sparow", "grey herron", "turdus", "pied fly"
+    };
+
+    private List<Bird> birds;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        birds = new ArrayList<>(BIRDS);
+        for (int i = 0; i < BIRDS; i++) {
+            String common = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " " + Integer.toString(i, 36);
+            String scientific = (i % 3 == 0 ? "Turdus" : "Genus" + (i % 500)) + " species" + i;
+            birds.add(new Bird(common, scientific, null, null));
+        }
+    }
+
+    @Test
+    void indexedSearchBeatsTheRegexScan() {
+        long buildStart = System.nanoTime();
+        BirdSearchIndex index = new BirdSearchIndex(birds);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        long baselineMedian = medianNanos(this::regexScan);
+        long indexMedian = medianNanos(query -> index.search(query, LIMIT));
+
+        System.out.printf("bird search over %d birds: index built in %.1f ms, baseline median %.3f ms, index median %.3f ms%n",
+                BIRDS, buildNanos / 1e6, baselineMedian / 1e6, indexMedian / 1e6);
+        assertTrue(indexMedian <= baselineMedian * MAX_RATIO,
+                "index median " + indexMedian + " ns exceeds baseline median " + baselineMedian + " ns");
+        assertTrue(indexMedian <= MAX_MEDIAN_NANOS,
+                "index median " + indexMedian + " ns exceeds the " + MAX_MEDIAN_NANOS + " ns budget");
+    }
+
+    // The search before the index: an unanchored, case-insensitive regex on either name
+    private List<Bird> regexScan(String query) {
+        Pattern pattern = Pattern.compile(Pattern.quote(query), Pattern.CASE_INSENSITIVE);
+        List<Bird> matches = new ArrayList<>();
+        for (Bird bird : birds) {
+            if (pattern.matcher(bird.getCommonName()).find() || pattern.matcher(bird.getScientificName()).find()) {
+                matches.add(bird);
+            }
+        }
+        return matches;
+    }
+
+    private static long medianNanos(Function<String, List<Bird>> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.apply(QUERIES[i % QUERIES.length]);
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            String query = QUERIES[i % QUERIES.length];
+            long start = System.nanoTime();
+            search.apply(query);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BirdSearchIndexTest {
+
+    // One bird per tier for the query "robin", listed worst tier first so input order can't explain the result
+    private static final List<Bird> TIERS = List.of(
+            bird("Rufous Robni", "Fuzzy one"),
+            bird("Scrobinae Finch", "Substring one"),
+            bird("American Robin", "Turdus migratorius"),
+            bird("Robin Accentor", "Prunella rubeculoides"),
+            bird("Robin", "Erithacus rubecula"),
+            bird("Grey Heron", "Ardea cinerea")
+    );
+
+    @Test
+    void tiersRankExactThenNamePrefixThenWordPrefixThenSubstringThenFuzzy() {
+        BirdSearchIndex index = new BirdSearchIndex(TIERS);
+
+        assertEquals(
+                List.of("Robin", "Robin Accentor", "American Robin", "Scrobinae Finch", "Rufous Robni"),
+                names(index.search("robin", 10)));
+    }
+
+    @Test
+    void aFullPageFromBetterTiersLeavesWorseTiersOut() {
+        BirdSearchIndex index = new BirdSearchIndex(TIERS);
+
+        assertEquals(List.of("Robin", "Robin Accentor"), names(index.search("robin", 2)));
+    }
+
+    @Test
+    void withinATierShorterNamesComeFirst() {
+        BirdSearchIndex index = new BirdSearchIndex(List.of(
+                bird("Rufous-backed Robin", "Turdus rufopalliatus"),
+                bird("American Robin", "Turdus migratorius"),
+                bird("Clay-colored Robin", "Turdus grayi")
+        ));
+
+        assertEquals(
+                List.of("American Robin", "Clay-colored Robin", "Rufous-backed Robin"),
+                names(index.search("turdus", 10)));
+    }
+
+    @Test
+    void queriesAreNormalizedLikeNames() {
+        BirdSearchIndex index = new BirdSearchIndex(TIERS);
+
+        assertEquals(names(index.search("robin", 10)), names(index.search("  ROBIN! ", 10)));
+        assertEquals(List.of("Robin"), names(index.search("Érithacus", 10)));
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void everyQueryWordMustMatchInAnyOrder() {
+        BirdSearchIndex index = new BirdSearchIndex(TIERS);
+
+        assertEquals(List.of("Grey Heron"), names(index.search("heron grey", 10)));
+        assertEquals(List.of("Grey Heron"), names(index.search("gery heron", 10)));
+        assertTrue(index.search("grey robin", 10).isEmpty());
+    }
+
+    @Test
+    void shortWordsGetNoTypoTolerance() {
+        BirdSearchIndex index = new BirdSearchIndex(List.of(bird("Blue Jay", "Cyanocitta cristata")));
+
+        assertTrue(index.search("jya", 10).isEmpty());
+        assertEquals(List.of("Blue Jay"), names(index.search("jay", 10)));
+    }
+
+    @Test
+    void editDistanceCountsSubstitutionsInsertionsDeletionsAndTranspositions() {
+        assertEquals(0, BirdSearchIndex.editDistance("robin", "robin", 2, false));
+        assertEquals(1, BirdSearchIndex.editDistance("robin", "rodin", 2, false));
+        assertEquals(1, BirdSearchIndex.editDistance("robin", "robins", 2, false));
+        assertEquals(1, BirdSearchIndex.editDistance("robin", "robn", 2, false));
+        assertEquals(1, BirdSearchIndex.editDistance("robni", "robin", 2, false));
+        assertEquals(3, BirdSearchIndex.editDistance("kitten", "sitting", 3, false));
+    }
+
+    @Test
+    void editDistanceStopsAtOnePastTheBound() {
+        assertEquals(3, BirdSearchIndex.editDistance("kitten", "sitting", 2, false));
+        assertEquals(2, BirdSearchIndex.editDistance("robin", "robxyz", 1, false));
+        assertEquals(3, BirdSearchIndex.editDistance("abcdef", "zyxwvu", 2, false));
+        // Rejected on length alone
+        assertEquals(2, BirdSearchIndex.editDistance("ab", "abcdef", 1, false));
+    }
+
+    @Test
+    void prefixEditDistanceOnlyNeedsACloseStart() {
+        assertEquals(1, BirdSearchIndex.editDistance("sparow", "sparrowhawk", 1, true));
+        assertEquals(2, BirdSearchIndex.editDistance("sparow", "sparrowhawk", 1, false));
+        assertEquals(0, BirdSearchIndex.editDistance("spar", "sparrow", 1, true));
+    }
+
+    private static Bird bird(String commonName, String scientificName) {
+        return new Bird(commonName, scientificName, null, null);
+    }
+
+    private static List<String> names(List<Bird> birds) {
+        return birds.stream().map(Bird::getCommonName).toList();
+    }
+}
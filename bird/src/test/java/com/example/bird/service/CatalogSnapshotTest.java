@@ -0,0 +1,94 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.BirdTombstone;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CatalogSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void changesReplaceInPlaceAppendAndDrop() {
+        Bird robin = bird("Robin", 1);
+        Bird wren = bird("Wren", 2);
+        CatalogSnapshot snapshot = new CatalogSnapshot(2, List.of(robin, wren), List.of(), objectMapper);
+
+        Bird renamed = copy(robin, "European Robin", 3);
+        Bird heron = bird("Grey Heron", 4);
+        CatalogSnapshot next = snapshot.withChanges(
+                List.of(renamed, heron),
+                List.of(new BirdTombstone(wren.getObjectId(), 5, new Date())),
+                5);
+
+        assertEquals(List.of("European Robin", "Grey Heron"), names(next));
+        assertEquals(5, next.getVersion());
+        assertEquals(List.of("European Robin"), names(next.getSearchIndex().search("robin", 10)));
+        assertNotEquals(snapshot.getEtag(), next.getEtag());
+    }
+
+    @Test
+    void anOlderCopyNeverReplacesANewerOne() {
+        Bird robin = bird("Robin", 1);
+        CatalogSnapshot snapshot = new CatalogSnapshot(1, List.of(robin), List.of(), objectMapper);
+
+        CatalogSnapshot newer = snapshot.withChanges(List.of(copy(robin, "European Robin", 3)), List.of(), 3);
+        CatalogSnapshot late = newer.withChanges(List.of(copy(robin, "Robin Redbreast", 2)), List.of(), 2);
+
+        assertEquals(List.of("European Robin"), names(late));
+        assertEquals(3, late.getVersion());
+    }
+
+    @Test
+    void aDeletedBirdDoesNotComeBack() {
+        Bird robin = bird("Robin", 1);
+        CatalogSnapshot snapshot = new CatalogSnapshot(1, List.of(robin), List.of(), objectMapper);
+
+        CatalogSnapshot deleted = snapshot.withChanges(
+                List.of(), List.of(new BirdTombstone(robin.getObjectId(), 3, new Date())), 3);
+        CatalogSnapshot late = deleted.withChanges(List.of(copy(robin, "European Robin", 2)), List.of(), 3);
+
+        assertEquals(List.of(), names(late));
+        assertEquals(1, late.getTombstones().size());
+    }
+
+    @Test
+    void theVersionIsTheWatermarkNotTheNewestBird() {
+        Bird inFlight = bird("Robin", 7);
+        CatalogSnapshot snapshot = new CatalogSnapshot(4, List.of(inFlight), List.of(), objectMapper);
+
+        assertEquals(4, snapshot.getVersion());
+        assertEquals(4, snapshot.withChanges(List.of(), List.of(), 3).getVersion());
+        assertEquals(6, snapshot.withChanges(List.of(), List.of(), 6).getVersion());
+    }
+
+    private static Bird bird(String commonName, long version) {
+        Bird bird = new Bird(commonName, null, null, null);
+        bird.setObjectId(new ObjectId());
+        bird.setCatalogVersion(version);
+        return bird;
+    }
+
+    private static Bird copy(Bird bird, String commonName, long version) {
+        Bird copy = new Bird(commonName, bird.getScientificName(), bird.getImageURL(), bird.getLocation());
+        copy.setObjectId(bird.getObjectId());
+        copy.setCatalogVersion(version);
+        return copy;
+    }
+
+    private static List<String> names(CatalogSnapshot snapshot) {
+        return names(snapshot.getBirds());
+    }
+
+    private static List<String> names(List<Bird> birds) {
+        return birds.stream().map(Bird::getCommonName).toList();
+    }
+}
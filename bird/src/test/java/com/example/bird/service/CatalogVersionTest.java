@@ -0,0 +1,102 @@
+package com.example.bird.service;
+
+import com.example.bird.models.Bird;
+import com.example.bird.models.CatalogDelta;
+import com.example.bird.repository.BirdDAO;
+import com.example.bird.support.MongoTestSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class CatalogVersionTest {
+
+    private MongoTemplate mongoTemplate;
+    private BirdDAO birdDAO;
+    private BirdService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        birdDAO = new MongoRepositoryFactory(mongoTemplate).getRepository(BirdDAO.class);
+        service = new BirdService(birdDAO, mongoTemplate, new ObjectMapper(), mock(S3Client.class), "", "birds");
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void theWatermarkStopsBelowTheOldestUnfinishedWrite() {
+        long first = service.nextCatalogVersion();
+        long second = service.nextCatalogVersion();
+        long third = service.nextCatalogVersion();
+
+        service.completeCatalogVersion(third);
+        service.completeCatalogVersion(second);
+        assertEquals(first - 1, service.committedCatalogVersion());
+
+        service.completeCatalogVersion(first);
+        assertEquals(third, service.committedCatalogVersion());
+    }
+
+    @Test
+    void aWriteThatCommitsLateIsInTheNextDelta() {
+        service.getCatalog();
+
+        // A slow writer takes its version first; a fast one takes the next and finishes
+        long slow = service.nextCatalogVersion();
+        service.addBird(new Bird("Wren", "Troglodytes troglodytes", null, null), null);
+
+        CatalogSnapshot seen = service.getCatalog();
+        assertEquals(slow - 1, seen.getVersion());
+        assertEquals(List.of("Wren"), seen.getBirds().stream().map(Bird::getCommonName).toList());
+
+        Bird robin = new Bird("Robin", "Erithacus rubecula", null, null);
+        robin.setCatalogVersion(slow);
+        birdDAO.save(robin);
+        service.completeCatalogVersion(slow);
+        service.loadCatalogChanges();
+
+        // A client that read the catalog above asks for what changed since
+        CatalogDelta delta = service.getCatalogChanges(seen.getVersion());
+        assertEquals(List.of("Robin", "Wren"), delta.getBirds().stream()
+                .map(bird -> (String) bird.get("commonName"))
+                .sorted()
+                .toList());
+        assertEquals(slow + 1, delta.getVersion());
+    }
+
+    @Test
+    void anAbandonedVersionStopsHoldingTheWatermarkBack() {
+        long abandoned = service.nextCatalogVersion();
+        long finished = service.nextCatalogVersion();
+        service.completeCatalogVersion(finished);
+        assertEquals(abandoned - 1, service.committedCatalogVersion());
+
+        Date expired = new Date(System.currentTimeMillis() - BirdService.PENDING_TIMEOUT.toMillis() - 1000);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is("birds")),
+                new Update().set("pending", List.of(new Document("v", abandoned).append("at", expired))),
+                "catalog_versions");
+
+        assertEquals(finished, service.committedCatalogVersion());
+        service.refreshCatalog();
+        Document counter = mongoTemplate.findById("birds", Document.class, "catalog_versions");
+        assertEquals(List.of(), counter.getList("pending", Document.class));
+    }
+}
@@ -1,6 +1,7 @@
 //fetch function - src/api/sightings.ts
 
-import {Post} from "../types/Post";
+import {LikeStatus, Post} from "../types/Post";
+import {Comment} from "../types/Comment";
 const BASE_URL = "http://localhost:8080";
 
 export async function getSightingById(postId:string): Promise<Post>{
@@ -58,7 +59,7 @@ export async function getSightingsByGroup(groupId: string): Promise<Post[]> {
 }
 
 // Like a post
-export async function likePost(postId: string, userId: string): Promise<Post> {
+export async function likePost(postId: string, userId: string): Promise<LikeStatus> {
   const response = await fetch(`${BASE_URL}/sightings/${postId}/like/${userId}`, {
     method: 'PUT',
     credentials: 'include',
@@ -75,7 +76,7 @@ export async function likePost(postId: string, userId: string): Promise<Post> {
 }
 
 // Unlike a post
-export async function unlikePost(postId: string, userId: string): Promise<Post> {
+export async function unlikePost(postId: string, userId: string): Promise<LikeStatus> {
   const response = await fetch(`${BASE_URL}/sightings/${postId}/unlike/${userId}`, {
     method: 'PUT',
     credentials: 'include',
@@ -91,8 +92,25 @@ export async function unlikePost(postId: string, userId: string): Promise<Post>
   return response.json();
 }
 
+export interface CommentPage {
+  items: Comment[];
+  next: string | null;
+}
+
+// Get a page of comments (oldest first)
+export async function getComments(postId: string, cursor?: string | null): Promise<CommentPage> {
+  const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+  const response = await fetch(`${BASE_URL}/sightings/${postId}/comments${query}`, {credentials: 'include'});
+
+  if (!response.ok) {
+    throw new Error("Failed to fetch comments");
+  }
+
+  return response.json();
+}
+
 // Add a comment
-export async function addComment(postId: string, userId: string, commentText: string): Promise<Post> {
+export async function addComment(postId: string, userId: string, commentText: string): Promise<Comment> {
   const response = await fetch(`${BASE_URL}/sightings/${postId}/comments?userId=${userId}`, {
     method: 'POST',
     credentials: 'include',
@@ -112,7 +130,7 @@ export async function addComment(postId: string, userId: string, commentText: st
 }
 
 // Update a comment
-export async function updateComment(postId: string, updatedComment: Comment): Promise<Post> {
+export async function updateComment(postId: string, updatedComment: Comment): Promise<Comment> {
   const response = await fetch(`${BASE_URL}/sightings/${postId}/comments`, {
     method: 'PATCH',
     credentials: 'include',
@@ -130,7 +148,7 @@ export async function updateComment(postId: string, updatedComment: Comment): Pr
 }
 
 // Delete a comment
-export async function deleteComment(postId: string, comment: Comment): Promise<Post> {
+export async function deleteComment(postId: string, comment: Comment): Promise<void> {
   const response = await fetch(`${BASE_URL}/sightings/${postId}/comments`, {
     method: 'DELETE',
     credentials: 'include',
@@ -143,8 +161,6 @@ export async function deleteComment(postId: string, comment: Comment): Promise<P
   if (!response.ok) {
     throw new Error("Failed to delete comment");
   }
-
-  return response.json();
 }
 
 // Delete a post
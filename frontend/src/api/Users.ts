@@ -1,4 +1,4 @@
-import { User } from "../types/User";
+import { Relationship, User } from "../types/User";
 const BASE_URL = "http://localhost:8080";
 
 export async function getAllUsers(): Promise<User[]> {
@@ -66,6 +66,27 @@ export async function removeFriend(userId: string, friendId: string): Promise<vo
   //return response.json();
 }
 
+// Friend flag and mutual friend count for each target, from the viewer's side
+export async function getRelationships(viewerId: string, targetIds: string[]): Promise<Relationship[]> {
+  const response = await fetch(
+    `${BASE_URL}/users/${viewerId}/relationships`,
+    {
+      method: "POST",
+      headers: {
+        "Content-Type": "application/json",
+      },
+      credentials: "include",
+      body: JSON.stringify(targetIds),
+    }
+  );
+
+  if (!response.ok) {
+    throw new Error("Failed to fetch relationships");
+  }
+
+  return response.json();
+}
+
 export async function updateUserRole(userId: string, role: string): Promise<User> {
   const response = await fetch(
     `${BASE_URL}/users/${userId}/role`,
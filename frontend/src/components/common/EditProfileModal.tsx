@@ -38,7 +38,6 @@ function EditProfileModal({user, onClose, onSave} : {user: User, onClose: () =>
       role: user.role,
       posts: user.posts ?? [],
       groups: user.groups ?? [],
-      friends: user.friends ?? [],
     };
 
     const formData = new FormData();
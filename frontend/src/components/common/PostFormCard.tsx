@@ -203,9 +203,7 @@ function PostFormCard({onClose, existingPost, onUpdate, onPostCreated} : PostFor
                     longitude: location[1].toString()
                 })
             },
-            flagged: existingPost?.flagged || false,
-            likes: existingPost?.likes || [],
-            comments: existingPost?.comments || []
+            flagged: existingPost?.flagged || false
         };
         
         if (isEditing && existingPost?.id) {
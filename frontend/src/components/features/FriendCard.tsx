@@ -17,7 +17,7 @@ function FriendCard(props: FriendCardProps) {
 
     name = user.username;
     profilePhoto = user.profilePic ? resolveMediaUrl(user.profilePic) : undefined;
-    subText = `${user.friends?.length || 0} friends`;
+    subText = `${user.friendCount ?? 0} friends`;
   } else {
     const friend = props.friend;
 
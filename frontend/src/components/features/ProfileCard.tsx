@@ -19,7 +19,7 @@ function ProfileCard({ user }: ProfileCardProps) {
                 <p className='text-base font-extralight'>Spottings</p>
             </div>
             <div className='flex flex-col items-center'>
-                <p className='text-2xl font-light text-[#0700D3]'>{user?.friends?.length || 0}</p>
+                <p className='text-2xl font-light text-[#0700D3]'>{user?.friendCount ?? 0}</p>
                 <p className='text-base font-extralight'>Friends</p>
             </div>
             <div className='flex flex-col items-center'>
@@ -196,7 +196,7 @@ const pagedPosts = posts.slice(0, (page + 1) * PAGE_SIZE);
                       : undefined
                   }
                   likes={post.likes.length}
-                  comments={post.comments.length}
+                  comments={post.commentCount ?? 0}
                   image={post.image}
                 />
               </button>
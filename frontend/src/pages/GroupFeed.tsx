@@ -488,7 +488,7 @@ function GroupFeed() {
                     : undefined
                   }
                   likes={post.likes.length}
-                  comments={post.comments.length}
+                  comments={post.commentCount ?? 0}
                   image={post.image}
                 />
               </button>
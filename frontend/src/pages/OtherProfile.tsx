@@ -10,7 +10,7 @@ import { User } from '../types/User';
 import { getUserById } from '../api/Users';
 import { arrayToCoords, reverseCoordsToCityState } from '../utils/geolocation';
 import { resolveMediaUrl } from '../utils/mediaUrl';
-import { addFriend,removeFriend } from '../api/Users';
+import { addFriend,removeFriend,getRelationships } from '../api/Users';
 
 function OtherProfile() {
   const [posts, setPosts] = useState<Post[]>([]);
@@ -22,18 +22,15 @@ function OtherProfile() {
   const navigate = useNavigate();
   const BASE_URL = "http://localhost:8080";
   const { user } = useAuth();
-  const [currentUserFull, setCurrentUserFull] = useState<User | null>(null);
-  const [currentUserLoading, setCurrentUserLoading] = useState(true);
   const [isFollowing, setIsFollowing] = useState(false);
 
   useEffect(() => {
-    if (user?.id) {
-      setCurrentUserLoading(true);
-      getUserById(user.id)
-        .then(setCurrentUserFull)
-        .finally(() => setCurrentUserLoading(false));
+    if (user?.id && userId && user.id !== userId) {
+      getRelationships(user.id, [userId])
+        .then(([relationship]) => setIsFollowing(relationship?.friend ?? false))
+        .catch(err => console.error("Failed to fetch relationship:", err));
     }
-  }, [user?.id]);
+  }, [user?.id, userId]);
 
 
   useEffect(() => {
@@ -84,35 +81,18 @@ function OtherProfile() {
     }
   }, [userInfo?.location])
 
-  useEffect(() => {
-    if (currentUserFull && userInfo) {
-      const isFriend = currentUserFull.friends?.some(
-        friendId => String(friendId) === String(userInfo.id)
-      );
-      setIsFollowing(isFriend || false);
-    }
-  }, [currentUserFull, userInfo]);
-
-  if (pageLoading || currentUserLoading) {
+  if (pageLoading) {
     return <div>loading page</div>;
   }
 
-  if (!userInfo || !currentUserFull) {
+  if (!userInfo) {
     return <div>loading user data</div>;
   }
 
 console.log(userInfo);
 console.log(user);
-console.log("currentUserFull.friends:", currentUserFull.friends);
 console.log("viewed userId:", userId);
 console.log("Type of userId: ",typeof(userId));
-if (currentUserFull.friends){
-    console.log("Type of currentUserFull.friends[0]: ",typeof(currentUserFull.friends[0]));
-    console.log("Type of currentUserFull.friends[1]: ",typeof(currentUserFull.friends[1]));
-    console.log("Type of currentUserFull.friends[2]: ",typeof(currentUserFull.friends[2]));
-    console.log("Type of currentUserFull.friends[3]: ",typeof(currentUserFull.friends[3]));
-    console.log("Type of currentUserFull.friends[4]: ",typeof(currentUserFull.friends[4]));
-}
 
 const canFollow =
   user &&
@@ -137,7 +117,7 @@ const canFollow =
                             <p className='text-sm font-extralight'>Spottings</p>
                         </div>
                         <div className='flex flex-col items-center'>
-                            <p className='text-xl font-light text-[#0700D3]'>{userInfo.friends?.length || '0'}</p>
+                            <p className='text-xl font-light text-[#0700D3]'>{userInfo.friendCount ?? 0}</p>
                             <p className='text-sm font-extralight'>Friends</p>
                         </div>
                         <div className='flex flex-col items-center'>
@@ -159,7 +139,7 @@ const canFollow =
       <div className='basis-1/3 m-6 ml-0'>
 
 {/* Profile Actions */}
-{user && userId && userInfo && currentUserFull && user.id !== userInfo.id && (
+{user && userId && userInfo && user.id !== userInfo.id && (
   <div className="bg-white p-4 drop-shadow mb-6">
     <h3 className="text-lg font-medium mb-3"></h3>
 
@@ -170,14 +150,6 @@ const canFollow =
 
     try {
       await addFriend(user.id, userId);
-      setCurrentUserFull(prev =>
-        prev
-          ? {
-              ...prev,
-              friends: [...new Set([...(prev.friends ?? []).map(String), String(userId)])],
-            }
-          : prev
-      );
       setIsFollowing(true);
     } catch (err) {
       console.error("Failed to follow:", err);
@@ -194,18 +166,7 @@ const canFollow =
 
     try {
       await removeFriend(user.id, userId);
-
-      setCurrentUserFull(prev =>
-  prev
-    ? {
-        ...prev,
-        friends: (prev.friends ?? []).filter(
-          id => String(id) !== String(userId)
-        ),
-      }
-    : prev
-);
-setIsFollowing(false);
+      setIsFollowing(false);
     } catch (err) {
       console.error("Failed to unfollow:", err);
     }
@@ -262,13 +223,13 @@ setIsFollowing(false);
                       <svg className='w-5 h-5 text-white' fill='currentColor' viewBox='0 0 24 24'>
                         <path d='M20.84 4.61a5.5 5.5 0 0 0-7.78 0L12 5.67l-1.06-1.06a5.5 5.5 0 0 0-7.78 7.78l1.06 1.06L12 21.23l7.78-7.78 1.06-1.06a5.5 5.5 0 0 0 0-7.78z' />
                       </svg>
-                      <span className='text-white text-xs font-medium'>{post.likes.length}</span>
+                      <span className='text-white text-xs font-medium'>{post.likeCount ?? 0}</span>
                     </div>
                     <div className='flex flex-col items-center gap-1'>
                       <svg className='w-5 h-5 text-white' fill='none' stroke='currentColor' viewBox='0 0 24 24'>
                         <path strokeLinecap='round' strokeLinejoin='round' strokeWidth={2} d='M7 8h10M7 12h4m1 8l-4-4H5a2 2 0 01-2-2V6a2 2 0 012-2h14a2 2 0 012 2v8a2 2 0 01-2 2h-3l-4 4z' />
                       </svg>
-                      <span className='text-white text-xs font-medium'>{post.comments.length}</span>
+                      <span className='text-white text-xs font-medium'>{post.commentCount ?? 0}</span>
                     </div>
                   </div>
                 </button>
@@ -122,7 +122,7 @@ function Profile() {
                             <p className='text-sm font-extralight'>Spottings</p>
                         </div>
                         <div className='flex flex-col items-center'>
-                            <p className='text-xl font-light text-[#0700D3]'>{userInfo.friends?.length || '0'}</p>
+                            <p className='text-xl font-light text-[#0700D3]'>{userInfo.friendCount ?? 0}</p>
                             <p className='text-sm font-extralight'>Friends</p>
                         </div>
                         <div className='flex flex-col items-center'>
@@ -184,13 +184,13 @@ function Profile() {
                       <svg className='w-5 h-5 text-white' fill='currentColor' viewBox='0 0 24 24'>
                         <path d='M20.84 4.61a5.5 5.5 0 0 0-7.78 0L12 5.67l-1.06-1.06a5.5 5.5 0 0 0-7.78 7.78l1.06 1.06L12 21.23l7.78-7.78 1.06-1.06a5.5 5.5 0 0 0 0-7.78z' />
                       </svg>
-                      <span className='text-white text-xs font-medium'>{post.likes.length}</span>
+                      <span className='text-white text-xs font-medium'>{post.likeCount ?? 0}</span>
                     </div>
                     <div className='flex flex-col items-center gap-1'>
                       <svg className='w-5 h-5 text-white' fill='none' stroke='currentColor' viewBox='0 0 24 24'>
                         <path strokeLinecap='round' strokeLinejoin='round' strokeWidth={2} d='M7 8h10M7 12h4m1 8l-4-4H5a2 2 0 01-2-2V6a2 2 0 012-2h14a2 2 0 012 2v8a2 2 0 01-2 2h-3l-4 4z' />
                       </svg>
-                      <span className='text-white text-xs font-medium'>{post.comments.length}</span>
+                      <span className='text-white text-xs font-medium'>{post.commentCount ?? 0}</span>
                     </div>
                   </div>
                 </button>
@@ -221,7 +221,7 @@ function SearchResults() {
                       dateTime={parseDate(post.timestamp)}
                       location={post.tags?.location}
                       likes={post.likes.length}
-                      comments={post.comments.length}
+                      comments={post.commentCount ?? 0}
                     />
                   </Link>
                 ))}
@@ -3,7 +3,7 @@ import { useEffect, useState } from "react";
 import { useParams, useNavigate } from "react-router-dom";
 
 //Actual page
-import { getSightingById, likePost, unlikePost, addComment, deletePost } from "../api/Sightings";
+import { getSightingById, getComments, likePost, unlikePost, addComment, deletePost } from "../api/Sightings";
 import { Post } from "../types/Post";
 import { Comment } from "../types/Comment";
 import { parseDate } from '../utils/dateTime';
@@ -36,6 +36,8 @@ function Sighting() {
   const [isSubmittingComment, setIsSubmittingComment] = useState(false);
   const [isTogglingLike, setIsTogglingLike] = useState(false);
   const [isEditing, setIsEditing] = useState(false);
+  const [comments, setComments] = useState<Comment[]>([]);
+  const [commentsCursor, setCommentsCursor] = useState<string | null>(null);
 
   //first fetch post
   useEffect(() => {
@@ -50,6 +52,29 @@ function Sighting() {
 
   }, [postId]);
 
+  // Comments are paginated separately from the post
+  useEffect(() => {
+    if (!postId) return;
+
+    getComments(postId)
+      .then(page => {
+        setComments(page.items);
+        setCommentsCursor(page.next);
+      })
+      .catch(console.error);
+  }, [postId]);
+
+  const loadMoreComments = async () => {
+    if (!postId || !commentsCursor) return;
+    try {
+      const page = await getComments(postId, commentsCursor);
+      setComments(prev => [...prev, ...page.items]);
+      setCommentsCursor(page.next);
+    } catch (err) {
+      console.error("Failed to load comments:", err);
+    }
+  };
+
   // Fetch full user data
   useEffect(() => {
     if (user?.id) {
@@ -106,8 +131,11 @@ useEffect(() => {
 
     setIsSubmittingComment(true);
     try {
-      const updatedPost = await addComment(postId, user.id, newComment.trim());
-      setPost(updatedPost);
+      const created = await addComment(postId, user.id, newComment.trim());
+      if (!commentsCursor) {
+        setComments(prev => [...prev, created]);
+      }
+      setPost(prev => prev && { ...prev, commentCount: (prev.commentCount ?? 0) + 1 });
       setNewComment('');
     } catch (err) {
       console.error("Failed to add comment:", err);
@@ -122,12 +150,16 @@ useEffect(() => {
 
     setIsTogglingLike(true);
     try {
-      const updatedPost = isLiked 
+      const status = isLiked 
         ? await unlikePost(postId, user.id)
         : await likePost(postId, user.id);
       
-      setPost(updatedPost);
-      setIsLiked(!isLiked);
+      setPost(prev => {
+        if (!prev) return prev;
+        const others = prev.likes.filter(like => like.toString() !== user.id);
+        return { ...prev, likes: status.liked ? [...others, user.id] : others, likeCount: status.likeCount ?? prev.likeCount };
+      });
+      setIsLiked(status.liked);
     } catch (err) {
       console.error("Failed to toggle like:", err);
       alert("Failed to update like. Please try again.");
@@ -279,7 +311,7 @@ useEffect(() => {
             </button>
             <div className='flex flex-row items-center px-3 py-2'>
               <img src="/src/assets/comment.png" alt="comments" className='w-5 h-5 mr-2'/>
-              <p className='text-lg'>{post.comments.length} {post.comments.length === 1 ? 'comment' : 'comments'}</p>
+              <p className='text-lg'>{post.commentCount} {post.commentCount === 1 ? 'comment' : 'comments'}</p>
             </div>
           </div>
         </div>
@@ -322,9 +354,19 @@ useEffect(() => {
         {/* Comments Section */}
         <div className='w-full bg-white p-6 drop-shadow'>
           <h2 className='text-xl font-bold mb-4 pb-2 border-gray-300'>
-            Comments ({post.comments.length})
+            Comments ({post.commentCount})
           </h2>
-          <CommentsList comments={post.comments} />
+          <CommentsList comments={comments} />
+          {commentsCursor && (
+            <div className='flex justify-center mt-4'>
+              <button
+                onClick={loadMoreComments}
+                className='px-4 py-2 text-blue-600 hover:underline'
+              >
+                Load more comments
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
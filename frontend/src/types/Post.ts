@@ -21,16 +21,24 @@ export interface Post {
   help: boolean;
 
   likes: string[];
+  likeCount?: number;
 
   image?: string | null;
   textBody: string;
   
   timestamp: string;
-  comments: Comment[];
+  commentCount: number;
+  commentPreview?: Comment[];
 
   user: {
     profilePic: string;
     userId: string;
     username: string;
   };
-}
\ No newline at end of file
+}
+
+export interface LikeStatus {
+  postId: string;
+  likeCount: number | null; // null while buffered by the write-behind mode
+  liked: boolean;
+}
@@ -5,8 +5,14 @@ export interface User {
   lastName?: string;
   profilePic?: string;
   location?: {latitude:string,longitude:string};
-  friends?: string[];
+  friendCount?: number;
   posts: string[];
   groups: string[];
   role: string;
+}
+
+export interface Relationship {
+  id: string;
+  friend: boolean;
+  mutualFriends: number;
 }
\ No newline at end of file
@@ -47,11 +47,11 @@ export function getUnlockedBadges(user: User, posts: any[]): string[] {
     unlocked.push('collector');
   }
   
-  if (user.friends && user.friends.length >= 3) {
+  if ((user.friendCount ?? 0) >= 3) {
     unlocked.push('social_butterfly');
   }
   
-  const totalLikes = posts.reduce((sum, post) => sum + (post.likes?.length || 0), 0);
+  const totalLikes = posts.reduce((sum, post) => sum + (post.likeCount ?? 0), 0);
   if (totalLikes >= 5) {
     unlocked.push('photographer');
   }
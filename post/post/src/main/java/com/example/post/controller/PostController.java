@@ -1,21 +1,39 @@
 package com.example.post.controller;
 
 import com.example.post.models.Comment;
+import com.example.post.models.CursorPage;
+import com.example.post.models.Heatmap;
+import com.example.post.models.LikeStatus;
 import com.example.post.models.Post;
+import com.example.post.models.PostRef;
+import com.example.post.models.PostSearchHit;
+import com.example.post.models.PostSummary;
+import com.example.post.models.TagFacetValue;
+import com.example.post.service.CommentService;
+import com.example.post.service.HeatmapService;
+import com.example.post.service.PostExportService;
+import com.example.post.service.PostSearchService;
 import com.example.post.service.PostService;
 import com.example.post.service.PostUserService;
+import com.example.post.service.TagFacetService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 
 import org.bson.types.ObjectId;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -30,12 +48,22 @@ public class PostController {
     private final ObjectMapper objectMapper;
     private final Validator validator;
     private final PostUserService puService;
+    private final CommentService commentService;
+    private final HeatmapService heatmapService;
+    private final PostSearchService searchService;
+    private final TagFacetService tagFacetService;
+    private final PostExportService exportService;
 
-    public PostController(PostService sightService, ObjectMapper objectMapper, Validator validator, PostUserService puService) {
+    public PostController(PostService sightService, ObjectMapper objectMapper, Validator validator, PostUserService puService, CommentService commentService, HeatmapService heatmapService, PostSearchService searchService, TagFacetService tagFacetService, PostExportService exportService) {
         this.sService = sightService;
         this.objectMapper = objectMapper;
         this.validator = validator;
         this.puService = puService;
+        this.commentService = commentService;
+        this.heatmapService = heatmapService;
+        this.searchService = searchService;
+        this.tagFacetService = tagFacetService;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -43,16 +71,195 @@ public class PostController {
         return sService.getAllPosts();
     }
 
+    // Paginated feed mode: GET /sightings?limit=20&after=<token>
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> getFeedPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String after
+    ) {
+        try {
+            CursorPage<PostSummary> page = sService.getFeedPage(after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Streams matching posts as NDJSON: GET /sightings/export?group=..&user=..&from=2026-01-01T00:00:00Z&to=...
+    @GetMapping("/export")
+    public void exportPosts(
+            @RequestParam(required = false) ObjectId group,
+            @RequestParam(required = false) ObjectId user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response
+    ) throws IOException {
+        // Written synchronously to the servlet stream, so there is no async timeout on long exports
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"sightings.ndjson\"");
+        exportService.export(
+            group,
+            user == null ? null : user.toHexString(),
+            from == null ? null : Date.from(from),
+            to == null ? null : Date.from(to),
+            response.getOutputStream()
+        );
+    }
+
     @GetMapping("/user/{userId}")
     public List<Post> getAllPostsByFriends(@PathVariable ObjectId userId) {
         return sService.getAllPostsByFriends(String.valueOf(userId));
     }
 
+    // Paginated friend feed: GET /sightings/user/{userId}?limit=20&after=<token>
+    @GetMapping(value = "/user/{userId}", params = "limit")
+    public ResponseEntity<?> getFriendFeedPage(
+            @PathVariable ObjectId userId,
+            @RequestParam int limit,
+            @RequestParam(required = false) String after
+    ) {
+        try {
+            CursorPage<Post> page = sService.getFriendFeedPage(userId.toHexString(), after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Posts by one author: GET /sightings/author/{userId}?from=2026-01-01T00:00:00Z&to=...&limit=500&after=<token>
+    @GetMapping("/author/{userId}")
+    public ResponseEntity<?> getPostsByAuthor(
+            @PathVariable ObjectId userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        try {
+            CursorPage<PostRef> page = sService.getPostsByAuthor(
+                userId.toHexString(),
+                from == null ? null : Date.from(from),
+                to == null ? null : Date.from(to),
+                after,
+                limit
+            );
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Full-text search over header and textBody: GET /sightings/search?q=nesting&limit=20&after=<token>
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        try {
+            CursorPage<PostSearchHit> page = searchService.search(q, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Sightings near a point: GET /sightings/near?lat=..&lng=..&radius=5000&since=2026-01-01T00:00:00Z&limit=20&after=<token>
+    @GetMapping("/near")
+    public ResponseEntity<?> getNearbyPosts(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5000") double radius,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        try {
+            CursorPage<PostSummary> page = sService.getNearbyPage(
+                lat, lng, radius, since == null ? null : Date.from(since), after, limit
+            );
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Map viewport: GET /sightings/within?minLat=..&minLng=..&maxLat=..&maxLng=..&limit=200
+    @GetMapping("/within")
+    public ResponseEntity<?> getPostsInViewport(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            @RequestParam(defaultValue = "200") int limit
+    ) {
+        try {
+            List<PostSummary> posts = sService.getSightingsInViewport(
+                minLat, minLng, maxLat, maxLng, since == null ? null : Date.from(since), limit
+            );
+            return ResponseEntity.ok(posts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Sighting density: GET /sightings/heatmap?bbox=minLng,minLat,maxLng,maxLat&zoom=8&bird=..&from=2026-01-01&to=2026-01-31
+    @GetMapping("/heatmap")
+    public ResponseEntity<?> getHeatmap(
+            @RequestParam String bbox,
+            @RequestParam int zoom,
+            @RequestParam(required = false) ObjectId bird,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        try {
+            Heatmap heatmap = heatmapService.getHeatmap(bbox, zoom, bird, from, to);
+            return ResponseEntity.ok(heatmap);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Batch read used by other services: POST a JSON array of post ids
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPostsByIds(@RequestBody List<String> ids) {
+        try {
+            List<PostRef> posts = sService.getPostRefsByIds(ids);
+            return ResponseEntity.ok(posts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Same batch with header, image and counts for rendering: POST /sightings/batch?view=summary
+    @PostMapping(value = "/batch", params = "view=summary", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getPostSummariesByIds(@RequestBody List<String> ids) {
+        try {
+            List<PostSummary> posts = sService.getPostSummariesByIds(ids);
+            return ResponseEntity.ok(posts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/tags")
     public List<Post> getAllPostsByTags(@RequestParam Map<String,String> tags) {
         return sService.getAllPostsByTags(tags);
     }
 
+    // Filter UI counts: GET /sightings/tags/facets?key=behavior&limit=20
+    @GetMapping("/tags/facets")
+    public Map<String, List<TagFacetValue>> getTagFacets(
+            @RequestParam(required = false) String key,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return tagFacetService.getFacets(key, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Post> getPostById(@PathVariable ObjectId id) {
         return sService.getPostById(id)
@@ -111,6 +318,18 @@ public class PostController {
         return ResponseEntity.ok("Post deleted successfully");
     }
 
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<?> getComments(
+            @PathVariable ObjectId id,
+            @RequestParam(required = false) String cursor
+    ) {
+        try {
+            return ResponseEntity.ok(commentService.getComments(id, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/{id}/comments")
     public ResponseEntity<?> addComment(
             @PathVariable ObjectId id,
@@ -119,7 +338,11 @@ public class PostController {
     ) {
         comment.setUser(puService.buildPostUser(userId));
         comment.setTimestamp(new Date());
-        return ResponseEntity.ok(sService.addComment(id, comment));
+        try {
+            return ResponseEntity.ok(commentService.addComment(id, comment));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 
     @PatchMapping("/{id}/comments")
@@ -130,7 +353,7 @@ public class PostController {
     ) {
         try {
             ObjectId userObjId = new ObjectId(userId);
-            return ResponseEntity.ok(sService.updateComment(id, userObjId, updatedComment));
+            return ResponseEntity.ok(commentService.updateComment(id, userObjId, updatedComment));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -144,26 +367,33 @@ public class PostController {
     ) {
         try {
             ObjectId userObjId = new ObjectId(userId);
-            return ResponseEntity.ok(
-                    sService.deleteComment(id, userObjId, comment.getTimestamp())
-            );
+            commentService.deleteComment(id, userObjId, comment.getTimestamp());
+            return ResponseEntity.ok("Comment deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PutMapping("/{postId}/like/{userId}")
-    public ResponseEntity<Post> likePost(@PathVariable String postId, @PathVariable String userId) {
+    public ResponseEntity<LikeStatus> likePost(@PathVariable String postId, @PathVariable String userId) {
         ObjectId postObjId = new ObjectId(postId);
         ObjectId userObjId = new ObjectId(userId);
-        return ResponseEntity.ok(sService.likePost(postObjId, userObjId));
+        try {
+            return ResponseEntity.ok(sService.likePost(postObjId, userObjId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PutMapping("/{postId}/unlike/{userId}")
-    public ResponseEntity<Post> unlikePost(@PathVariable String postId, @PathVariable String userId) {
+    public ResponseEntity<LikeStatus> unlikePost(@PathVariable String postId, @PathVariable String userId) {
         ObjectId postObjId = new ObjectId(postId);
         ObjectId userObjId = new ObjectId(userId);
-        return ResponseEntity.ok(sService.unlikePost(postObjId, userObjId));
+        try {
+            return ResponseEntity.ok(sService.unlikePost(postObjId, userObjId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @PutMapping("/{postId}/flag")
@@ -1,6 +1,10 @@
 package com.example.post.models;
 
 
+import com.example.post.serializers.ObjectIdDeserializer;
+import com.example.post.serializers.ObjectIdSerializer;
+import org.bson.types.ObjectId;
+
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
@@ -11,6 +15,10 @@ import java.util.Date;
 
 public class Comment {
 
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId id;
+
     private PostUser user;
     
     @NotBlank(message = "Comment cannot be blank")
@@ -26,6 +34,14 @@ public class Comment {
         this.timestamp = new Date();
     }
 
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
     public PostUser getUser() {
         return user;
     }
@@ -0,0 +1,74 @@
+package com.example.post.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size slice of a post's comments. Buckets for a post are ordered by seq,
+ * which is unique per post; only the newest one accepts new comments. Buckets
+ * moved from older layouts get seqs below 1 so they sort first.
+ */
+@Document(collection = "comment_buckets")
+@CompoundIndex(name = "post_seq", def = "{'postId': 1, 'seq': 1}", unique = true,
+        partialFilter = "{'seq': {'$exists': true}}")
+public class CommentBucket {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId postId;
+
+    private int seq;
+
+    // Slots used so far. Not decremented on delete so buckets keep filling in order.
+    private int count;
+
+    private List<Comment> comments = new ArrayList<>();
+
+    public CommentBucket() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public ObjectId getPostId() {
+        return postId;
+    }
+
+    public void setPostId(ObjectId postId) {
+        this.postId = postId;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.post.models;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code next} is the opaque token to
+ * pass back as {@code after}, or null when there are no more items.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String next;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
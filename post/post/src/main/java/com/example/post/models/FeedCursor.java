@@ -0,0 +1,46 @@
+package com.example.post.models;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position in a (timestamp desc, _id desc) ordering, serialized as an
+ * opaque url-safe token.
+ */
+public class FeedCursor {
+
+    private final Date timestamp;
+    private final ObjectId id;
+
+    public FeedCursor(Date timestamp, ObjectId id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = timestamp.getTime() + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            long millis = Long.parseLong(raw.substring(0, separator));
+            return new FeedCursor(new Date(millis), new ObjectId(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
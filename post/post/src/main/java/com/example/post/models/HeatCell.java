@@ -0,0 +1,84 @@
+package com.example.post.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Sighting counter for one geohash cell, one species and one period. A null
+ * bird is the all-species total. The period is a UTC day, a UTC month (day is
+ * its first day) or all time (day is null), so a heatmap reads at most one
+ * row per tile per month plus the days at either end of its range. Cells are
+ * kept at every precision from 1 up to the finest stored level.
+ */
+@Document(collection = "sighting_heat")
+@CompoundIndex(name = "cell_bird_span_day", def = "{'cell': 1, 'bird': 1, 'span': 1, 'day': 1}", unique = true)
+public class HeatCell {
+
+    @Id
+    private ObjectId id;
+
+    private String cell;
+
+    private ObjectId bird;
+
+    // "day", "month" or "all"
+    private String span;
+
+    private Date day;
+
+    private long count;
+
+    public HeatCell() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getCell() {
+        return cell;
+    }
+
+    public void setCell(String cell) {
+        this.cell = cell;
+    }
+
+    public ObjectId getBird() {
+        return bird;
+    }
+
+    public void setBird(ObjectId bird) {
+        this.bird = bird;
+    }
+
+    public String getSpan() {
+        return span;
+    }
+
+    public void setSpan(String span) {
+        this.span = span;
+    }
+
+    public Date getDay() {
+        return day;
+    }
+
+    public void setDay(Date day) {
+        this.day = day;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.post.models;
+
+import java.util.List;
+
+/**
+ * Sighting density over a viewport. {@code precision} is the geohash length
+ * of the returned tiles, which may be coarser than the zoom asked for when
+ * the viewport would otherwise need too many tiles.
+ */
+public class Heatmap {
+
+    private int precision;
+    private List<HeatmapTile> tiles;
+
+    public Heatmap() {}
+
+    public Heatmap(int precision, List<HeatmapTile> tiles) {
+        this.precision = precision;
+        this.tiles = tiles;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void setPrecision(int precision) {
+        this.precision = precision;
+    }
+
+    public List<HeatmapTile> getTiles() {
+        return tiles;
+    }
+
+    public void setTiles(List<HeatmapTile> tiles) {
+        this.tiles = tiles;
+    }
+}
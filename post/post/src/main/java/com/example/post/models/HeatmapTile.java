@@ -0,0 +1,50 @@
+package com.example.post.models;
+
+public class HeatmapTile {
+
+    private String cell;
+    private double lat;
+    private double lng;
+    private long count;
+
+    public HeatmapTile() {}
+
+    public HeatmapTile(String cell, double lat, double lng, long count) {
+        this.cell = cell;
+        this.lat = lat;
+        this.lng = lng;
+        this.count = count;
+    }
+
+    public String getCell() {
+        return cell;
+    }
+
+    public void setCell(String cell) {
+        this.cell = cell;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
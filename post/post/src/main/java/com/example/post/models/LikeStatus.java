@@ -0,0 +1,41 @@
+package com.example.post.models;
+
+public class LikeStatus {
+
+    private String postId;
+    // Null while the change is still buffered by the write-behind mode
+    private Integer likeCount;
+    private boolean liked;
+
+    public LikeStatus() {}
+
+    public LikeStatus(String postId, Integer likeCount, boolean liked) {
+        this.postId = postId;
+        this.likeCount = likeCount;
+        this.liked = liked;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public Integer getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(Integer likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public void setLiked(boolean liked) {
+        this.liked = liked;
+    }
+}
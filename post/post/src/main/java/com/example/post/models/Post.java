@@ -4,9 +4,12 @@ import com.example.post.serializers.ObjectIdDeserializer;
 import com.example.post.serializers.ObjectIdSerializer;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -20,6 +23,12 @@ import java.util.List;
 import java.util.Map;
 
 @Document(collection = "posts")
+@CompoundIndex(name = "feed_timestamp_id", def = "{'timestamp': -1, '_id': -1}")
+@CompoundIndex(name = "author_timestamp_id", def = "{'user.userId': 1, 'timestamp': -1, '_id': -1}")
+@CompoundIndex(name = "tag_index_k_v", def = "{'tagIndex.k': 1, 'tagIndex.v': 1}")
+@CompoundIndex(name = "location_timestamp", def = "{'location': '2dsphere', 'timestamp': -1}")
+@CompoundIndex(name = "group_id", def = "{'group': 1, '_id': 1}")
+@CompoundIndex(name = "author_id", def = "{'user.userId': 1, '_id': 1}")
 public class Post {
 
     @Id
@@ -31,10 +40,19 @@ public class Post {
 
     @NotBlank(message = "Header cannot be blank")
     @Size(max = 100, message = "Header cannot exceed 280 characters.")
+    @TextIndexed(weight = 3)
     private String header;
 
     private Map<String, String> tags;
 
+    // tags as [{k, v}], kept in step with tags by PostService so tag filters can use an index
+    @JsonIgnore
+    private List<TagPair> tagIndex;
+
+    // Derived from tags.latitude/tags.longitude on write; clients keep sending the tags
+    @JsonIgnore
+    private GeoJsonPoint location;
+
     @JsonSerialize(using = ObjectIdSerializer.class)
     @JsonDeserialize(using = ObjectIdDeserializer.class)
     private ObjectId bird;
@@ -51,14 +69,33 @@ public class Post {
     @JsonDeserialize(contentUsing = ObjectIdDeserializer.class)
     private List<ObjectId> likes = new ArrayList<>();
 
+    // Kept in step with likes by the atomic like/unlike updates
+    private int likeCount = 0;
+
     private String image;
 
     @NotBlank(message = "Description cannot be blank")
     @Size(max = 280, message = "Description cannot exceed 280 characters.")
+    @TextIndexed
     private String textBody;
 
     private Date timestamp = new Date();
-    private List<Comment> comments = new ArrayList<>();
+
+    // Comments live in comment_buckets; the post only keeps the count and the first few
+    private int commentCount = 0;
+    private List<Comment> commentPreview = new ArrayList<>();
+
+    // seq of the newest comment bucket; only ever raised with $max by CommentService
+    @JsonIgnore
+    private int commentBucketSeq = 1;
+
+    // Set once by HeatmapService when the post is added to the heatmap counters
+    @JsonIgnore
+    private Boolean heatCounted;
+
+    // Set once by TagFacetService when the post's tags are added to the facet counters
+    @JsonIgnore
+    private Boolean tagsCounted;
 
     // Required by Spring Data
     public Post() {}
@@ -150,6 +187,14 @@ public class Post {
         this.likes = likes;
     }
 
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
     public String getImage() {
         return image;
     }
@@ -174,12 +219,60 @@ public class Post {
         this.timestamp = timestamp;
     }
 
-    public List<Comment> getComments() {
-        return comments;
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public List<Comment> getCommentPreview() {
+        return commentPreview;
+    }
+
+    public void setCommentPreview(List<Comment> commentPreview) {
+        this.commentPreview = commentPreview;
+    }
+
+    public int getCommentBucketSeq() {
+        return commentBucketSeq;
+    }
+
+    public void setCommentBucketSeq(int commentBucketSeq) {
+        this.commentBucketSeq = commentBucketSeq;
+    }
+
+    public Boolean getHeatCounted() {
+        return heatCounted;
+    }
+
+    public void setHeatCounted(Boolean heatCounted) {
+        this.heatCounted = heatCounted;
+    }
+
+    public Boolean getTagsCounted() {
+        return tagsCounted;
+    }
+
+    public void setTagsCounted(Boolean tagsCounted) {
+        this.tagsCounted = tagsCounted;
+    }
+
+    public List<TagPair> getTagIndex() {
+        return tagIndex;
+    }
+
+    public void setTagIndex(List<TagPair> tagIndex) {
+        this.tagIndex = tagIndex;
+    }
+
+    public GeoJsonPoint getLocation() {
+        return location;
     }
 
-    public void setComments(List<Comment> comments) {
-        this.comments = comments;
+    public void setLocation(GeoJsonPoint location) {
+        this.location = location;
     }
 
     public Boolean isFlagged() {
@@ -0,0 +1,65 @@
+package com.example.post.models;
+
+import com.example.post.serializers.ObjectIdDeserializer;
+import com.example.post.serializers.ObjectIdSerializer;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Date;
+
+/**
+ * Minimal projection returned by the batch read endpoint. Matches the Post
+ * DTO other services deserialize into.
+ */
+public class PostRef {
+
+    @Id
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId id;
+
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId bird;
+
+    private String userId;
+
+    private Date timestamp;
+
+    public PostRef() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public ObjectId getBird() {
+        return bird;
+    }
+
+    public void setBird(ObjectId bird) {
+        this.bird = bird;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+}
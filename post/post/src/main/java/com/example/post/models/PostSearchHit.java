@@ -0,0 +1,34 @@
+package com.example.post.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feed row plus its relevance score and match positions. Highlights map a
+ * field name to [start, end) character ranges within that field, so clients
+ * can mark matches without the server returning markup.
+ */
+public class PostSearchHit extends PostSummary {
+
+    private double score;
+
+    private Map<String, List<int[]>> highlights;
+
+    public PostSearchHit() {}
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public Map<String, List<int[]>> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(Map<String, List<int[]>> highlights) {
+        this.highlights = highlights;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.post.models;
+
+import com.example.post.serializers.ObjectIdDeserializer;
+import com.example.post.serializers.ObjectIdSerializer;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slim read model for feed pages. Carries counts and a short preview of the
+ * comments instead of the full embedded arrays.
+ */
+public class PostSummary {
+
+    @Id
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId id;
+
+    private PostUser user;
+
+    private String header;
+
+    private Map<String, String> tags;
+
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId bird;
+
+    private Boolean flagged = false;
+
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId group;
+
+    private Boolean help = false;
+
+    private String image;
+
+    private String textBody;
+
+    private Date timestamp;
+
+    private int likeCount;
+
+    private int commentCount;
+
+    private List<Comment> recentComments = new ArrayList<>();
+
+    // Meters from the search point; only set by the nearby query
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distance;
+
+    public PostSummary() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public PostUser getUser() {
+        return user;
+    }
+
+    public void setUser(PostUser user) {
+        this.user = user;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    public ObjectId getBird() {
+        return bird;
+    }
+
+    public void setBird(ObjectId bird) {
+        this.bird = bird;
+    }
+
+    public Boolean getFlagged() {
+        return flagged;
+    }
+
+    public void setFlagged(Boolean flagged) {
+        this.flagged = flagged;
+    }
+
+    public ObjectId getGroup() {
+        return group;
+    }
+
+    public void setGroup(ObjectId group) {
+        this.group = group;
+    }
+
+    public Boolean getHelp() {
+        return help;
+    }
+
+    public void setHelp(Boolean help) {
+        this.help = help;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public String getTextBody() {
+        return textBody;
+    }
+
+    public void setTextBody(String textBody) {
+        this.textBody = textBody;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public List<Comment> getRecentComments() {
+        return recentComments;
+    }
+
+    public void setRecentComments(List<Comment> recentComments) {
+        this.recentComments = recentComments;
+    }
+
+    public Double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Double distance) {
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.post.models;
+
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a (rank, _id) ordering, where rank is a computed value
+ * such as a distance or a text score, serialized as an opaque url-safe token.
+ * The rank is carried as raw double bits so the next page resumes at exactly
+ * the same value.
+ */
+public class RankCursor {
+
+    private final double rank;
+    private final ObjectId id;
+
+    public RankCursor(double rank, ObjectId id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(rank)) + ":" + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RankCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double rank = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            if (Double.isNaN(rank)) {
+                throw new IllegalArgumentException();
+            }
+            return new RankCursor(rank, new ObjectId(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
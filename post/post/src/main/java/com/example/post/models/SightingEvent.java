@@ -0,0 +1,57 @@
+package com.example.post.models;
+
+import com.example.post.serializers.ObjectIdDeserializer;
+import com.example.post.serializers.ObjectIdSerializer;
+import org.bson.types.ObjectId;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Date;
+
+/**
+ * Sent to the user service when a sighting is created (delta 1) or deleted
+ * (delta -1) so its stats rollup can be adjusted in place.
+ */
+public class SightingEvent {
+
+    @JsonSerialize(using = ObjectIdSerializer.class)
+    @JsonDeserialize(using = ObjectIdDeserializer.class)
+    private ObjectId bird;
+
+    private Date timestamp;
+
+    private int delta;
+
+    public SightingEvent() {}
+
+    public SightingEvent(ObjectId bird, Date timestamp, int delta) {
+        this.bird = bird;
+        this.timestamp = timestamp;
+        this.delta = delta;
+    }
+
+    public ObjectId getBird() {
+        return bird;
+    }
+
+    public void setBird(ObjectId bird) {
+        this.bird = bird;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.post.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Post count for one tag key/value pair. The index serves the facet read:
+ * values of a key, most used first, without an in-memory sort.
+ */
+@Document(collection = "tag_facets")
+@CompoundIndex(name = "key_count_value", def = "{'_id.k': 1, 'count': -1, '_id.v': 1}")
+public class TagFacet {
+
+    // Always k, then v: the embedded _id is matched as a whole document
+    @Id
+    private TagPair id;
+
+    private long count;
+
+    public TagFacet() {}
+
+    public TagPair getId() {
+        return id;
+    }
+
+    public void setId(TagPair id) {
+        this.id = id;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
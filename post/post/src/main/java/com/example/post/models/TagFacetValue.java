@@ -0,0 +1,30 @@
+package com.example.post.models;
+
+public class TagFacetValue {
+
+    private String value;
+    private long count;
+
+    public TagFacetValue() {}
+
+    public TagFacetValue(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
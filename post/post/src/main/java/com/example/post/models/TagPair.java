@@ -0,0 +1,34 @@
+package com.example.post.models;
+
+/**
+ * One tag in attribute-pattern form, so every key/value pair on a post is
+ * served by the single tagIndex.k/tagIndex.v index.
+ */
+public class TagPair {
+
+    private String k;
+    private String v;
+
+    public TagPair() {}
+
+    public TagPair(String k, String v) {
+        this.k = k;
+        this.v = v;
+    }
+
+    public String getK() {
+        return k;
+    }
+
+    public void setK(String k) {
+        this.k = k;
+    }
+
+    public String getV() {
+        return v;
+    }
+
+    public void setV(String v) {
+        this.v = v;
+    }
+}
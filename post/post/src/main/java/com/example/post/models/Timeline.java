@@ -0,0 +1,41 @@
+package com.example.post.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized friend feed for one user, newest first. Capped to the most
+ * recent entries by the $push/$sort/$slice that writes it.
+ */
+@Document(collection = "timelines")
+@CompoundIndex(name = "entries_post", def = "{'entries.postId': 1}")
+public class Timeline {
+
+    // The reader's user id
+    @Id
+    private String id;
+
+    private List<TimelineEntry> entries = new ArrayList<>();
+
+    public Timeline() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<TimelineEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<TimelineEntry> entries) {
+        this.entries = entries;
+    }
+}
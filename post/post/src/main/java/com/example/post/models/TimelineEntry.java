@@ -0,0 +1,44 @@
+package com.example.post.models;
+
+import org.bson.types.ObjectId;
+
+import java.util.Date;
+
+public class TimelineEntry {
+
+    private ObjectId postId;
+    private String authorId;
+    private Date timestamp;
+
+    public TimelineEntry() {}
+
+    public TimelineEntry(ObjectId postId, String authorId, Date timestamp) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.timestamp = timestamp;
+    }
+
+    public ObjectId getPostId() {
+        return postId;
+    }
+
+    public void setPostId(ObjectId postId) {
+        this.postId = postId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+}
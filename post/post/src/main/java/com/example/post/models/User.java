@@ -15,7 +15,6 @@ public class User {
     private String profilePic;
     private String firstName;
     private String lastName;
-    private ObjectId[] friends;
     private ObjectId[] posts;
     private ObjectId[] groups;
 
@@ -64,14 +63,6 @@ public class User {
         this.lastName = lastName;
     }
 
-    public ObjectId[] getFriends() {
-        return friends;
-    }
-
-    public void setFriends(ObjectId[] friends) {
-        this.friends = friends;
-    }
-
     public ObjectId[] getPosts() {
         return posts;
     }
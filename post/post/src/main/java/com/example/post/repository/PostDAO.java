@@ -11,11 +11,12 @@ import java.util.List;
 @Repository
 public interface PostDAO extends MongoRepository<Post, ObjectId> {
 
-    @Query("{ 'tags.?0': { $exists: true } }")
-    List<Post> findByTagKey(List<String> tags);
+    @Query("{ 'tagIndex.k': ?0 }")
+    List<Post> findByTagKey(String key);
 
+    // user.userId is stored as a hex string
     @Query("{ 'user.userId': ?0 }")
-    List<Post> findByUserId(ObjectId userId);
+    List<Post> findByUserId(String userId);
 
     @Query("{ 'flagged': true }")
     List<Post> findFlaggedPosts();
@@ -0,0 +1,47 @@
+package com.example.post.repository;
+
+import com.example.post.models.Post;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs post reads as a single find: the caller's filter, sort and limit go to
+ * the server in one round trip and no second fetch of the same documents is
+ * made. Post has no field for joined bird details, so no $lookup is run.
+ */
+@Component
+public class PostQueryEngine {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PostQueryEngine(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<Post> find(Criteria criteria) {
+        return find(criteria, Sort.unsorted(), 0);
+    }
+
+    // limit <= 0 means no limit
+    public List<Post> find(Criteria criteria, Sort sort, int limit) {
+        Query query = new Query(criteria);
+        if (sort != null && sort.isSorted()) {
+            query.with(sort);
+        }
+        if (limit > 0) {
+            query.limit(limit);
+        }
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    public Optional<Post> findById(ObjectId id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, Post.class));
+    }
+}
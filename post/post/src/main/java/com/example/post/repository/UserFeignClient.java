@@ -1,10 +1,12 @@
 package com.example.post.repository;
+import com.example.post.models.SightingEvent;
 import com.example.post.models.User;
 import org.bson.types.ObjectId;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
@@ -16,15 +18,21 @@ public interface UserFeignClient {
     @GetMapping("/users/{id}/friends")
     List<User> getAllById(@PathVariable("id") List<ObjectId> id);
 
+    @GetMapping("/users/{id}/friend-ids")
+    List<String> getFriendIds(@PathVariable("id") String id);
+
+    @GetMapping("/users/{id}/followers")
+    List<String> getFollowerIds(@PathVariable("id") String id);
+
     @PutMapping("/users/{id}/posts/{postId}")
     void addPostToUser(
             @PathVariable("id") String id,
             @PathVariable("postId") String postId
     );
-}
-
-
-
-
-
 
+    @PutMapping("/users/{id}/stats/sightings")
+    void recordSighting(
+            @PathVariable("id") String id,
+            @RequestBody SightingEvent event
+    );
+}
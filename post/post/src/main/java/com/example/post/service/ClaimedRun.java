@@ -0,0 +1,107 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * State document of a startup backfill that every instance tries to run.
+ * Inserting the fixed _id claims the run; a claim left by a crashed instance
+ * is taken over once stale, and a completed run is never repeated.
+ *
+ * <p>Counter backfills also use it to count each post exactly once: the run
+ * marks itself ready, after which the write path counts new posts, and both
+ * sides count a post only by flipping a flag on it.
+ */
+final class ClaimedRun {
+
+    static final String ID = "posts";
+    private static final Duration STALE_CLAIM = Duration.ofHours(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final String stateCollection;
+
+    // Only ever goes from false to true, so a stale read just costs one more lookup
+    private volatile boolean ready;
+
+    ClaimedRun(MongoTemplate mongoTemplate, String stateCollection) {
+        this.mongoTemplate = mongoTemplate;
+        this.stateCollection = stateCollection;
+    }
+
+    boolean claim() {
+        Date now = new Date();
+        try {
+            mongoTemplate.insert(new Document("_id", ID).append("startedAt", now), stateCollection);
+            return true;
+        } catch (DuplicateKeyException e) {
+            Query stale = new Query(Criteria.where("_id").is(ID)
+                    .and("completedAt").exists(false)
+                    .and("startedAt").lt(new Date(now.getTime() - STALE_CLAIM.toMillis())));
+            return mongoTemplate.updateFirst(stale, new Update().set("startedAt", now), stateCollection)
+                    .getModifiedCount() > 0;
+        }
+    }
+
+    // Adds completedAt to the given fields of the state document
+    void complete(Update update) {
+        mongoTemplate.updateFirst(byId(), update.set("completedAt", new Date()), stateCollection);
+    }
+
+    void markReady() {
+        mongoTemplate.updateFirst(byId(), new Update().set("readyAt", new Date()), stateCollection);
+        ready = true;
+    }
+
+    boolean isReady() {
+        if (!ready) {
+            ready = mongoTemplate.exists(new Query(Criteria.where("_id").is(ID).and("readyAt").exists(true)), stateCollection);
+        }
+        return ready;
+    }
+
+    // Sets flag on the post and returns the given fields, or null when someone else already set it
+    Post flag(ObjectId postId, String flag, String... fields) {
+        Query unflagged = new Query(Criteria.where("_id").is(postId).and(flag).ne(true));
+        unflagged.fields().include(fields);
+        return mongoTemplate.findAndModify(unflagged, new Update().set(flag, true), Post.class);
+    }
+
+    /**
+     * Hands every post without flag to count, pass after pass, until a pass
+     * counts nothing: a post saved during a pass but not yet flagged by its
+     * create is picked up by the next one. Returns the posts counted.
+     */
+    long countUnflagged(String flag, Predicate<ObjectId> count) {
+        Query unflagged = new Query(Criteria.where(flag).ne(true));
+        unflagged.fields().include("_id");
+        long total = 0;
+        long counted;
+        do {
+            counted = 0;
+            try (Stream<Post> stream = mongoTemplate.stream(unflagged, Post.class)) {
+                for (Post post : (Iterable<Post>) stream::iterator) {
+                    if (count.test(post.getId())) {
+                        counted++;
+                    }
+                }
+            }
+            total += counted;
+        } while (counted > 0);
+        return total;
+    }
+
+    private Query byId() {
+        return new Query(Criteria.where("_id").is(ID));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.post.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves comments embedded in posts into seq-numbered comment_buckets while
+ * the service takes traffic. Nothing live is removed or reset: embedded
+ * arrays become buckets keyed by (postId, seq) before the array is unset, and
+ * the post's count and preview are adjusted with $inc/$push rather than
+ * overwritten. One instance claims the run; every step is safe to repeat.
+ */
+@Component
+public class CommentBucketMigration {
+
+    private static final String BUCKETS = "comment_buckets";
+    private static final String STATE_COLLECTION = "comment_buckets_state";
+
+    // Embedded comments are older than any live bucket, which start at seq 1
+    private static final int EMBEDDED_SEQ_BASE = -2_000_000_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClaimedRun run;
+
+    public CommentBucketMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.run = new ClaimedRun(mongoTemplate, STATE_COLLECTION);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            if (!run.claim()) {
+                return;
+            }
+            moveEmbeddedComments();
+            run.complete(new Update());
+        } catch (Exception e) {
+            System.err.println("Comment bucket migration failed: " + e.getMessage());
+        }
+    }
+
+    void moveEmbeddedComments() {
+        Query legacy = new Query(Criteria.where("comments").exists(true));
+        legacy.fields().include("comments");
+
+        try (Stream<Document> posts = mongoTemplate.stream(legacy, Document.class, "posts")) {
+            posts.forEach(this::moveEmbedded);
+        }
+    }
+
+    private void moveEmbedded(Document post) {
+        ObjectId postId = post.getObjectId("_id");
+        List<Document> comments = post.getList("comments", Document.class, List.of());
+
+        // Buckets first, upserted by (postId, seq) so a rerun replaces rather than duplicates them
+        for (int start = 0; start < comments.size(); start += CommentService.BUCKET_SIZE) {
+            List<Document> slice = comments.subList(start, Math.min(start + CommentService.BUCKET_SIZE, comments.size()));
+            slice.forEach(comment -> comment.putIfAbsent("_id", new ObjectId()));
+            int seq = EMBEDDED_SEQ_BASE + start / CommentService.BUCKET_SIZE;
+            mongoTemplate.upsert(
+                new Query(Criteria.where("postId").is(postId).and("seq").is(seq)),
+                new Update().set("count", slice.size()).set("comments", slice),
+                BUCKETS
+            );
+        }
+
+        // Comments added since the deploy already counted themselves and sit in the preview;
+        // the older embedded ones are added to the count and go in front of the preview
+        Update update = new Update().unset("comments").inc("commentCount", comments.size());
+        if (!comments.isEmpty()) {
+            List<Document> first = comments.subList(0, Math.min(CommentService.PREVIEW_SIZE, comments.size()));
+            update.push("commentPreview").atPosition(0).slice(CommentService.PREVIEW_SIZE).each(first.toArray());
+        }
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(postId).and("comments").exists(true)),
+            update,
+            "posts"
+        );
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.post.service;
+
+import com.example.post.models.Comment;
+import com.example.post.models.CommentBucket;
+import com.example.post.models.CursorPage;
+import com.example.post.models.Post;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class CommentService {
+
+    static final int BUCKET_SIZE = 50;
+    static final int PREVIEW_SIZE = 3;
+    private static final int MAX_APPEND_ATTEMPTS = 10;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CommentService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // One bucket per page, oldest first. cursor is the seq of the last bucket returned.
+    public CursorPage<Comment> getComments(ObjectId postId, String cursor) {
+        Criteria criteria = Criteria.where("postId").is(postId).and("comments.0").exists(true);
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                criteria.and("seq").gt(Integer.parseInt(cursor));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "seq"));
+        CommentBucket bucket = mongoTemplate.findOne(query, CommentBucket.class);
+        if (bucket == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        // Migrated buckets can be part-full and still have successors, so ask the index
+        boolean more = mongoTemplate.exists(
+            new Query(Criteria.where("postId").is(postId).and("seq").gt(bucket.getSeq()).and("comments.0").exists(true)),
+            CommentBucket.class
+        );
+        return new CursorPage<>(bucket.getComments(), more ? String.valueOf(bucket.getSeq()) : null);
+    }
+
+    // The comment is stored before the post counts it, so a failed append leaves no phantom
+    // preview entry or inflated commentCount behind
+    public Comment addComment(ObjectId postId, Comment comment) {
+        comment.setId(new ObjectId());
+
+        Query byId = new Query(Criteria.where("_id").is(postId));
+        byId.fields().include("commentBucketSeq");
+        Post post = mongoTemplate.findOne(byId, Post.class);
+        if (post == null) {
+            throw new IllegalArgumentException("Post not found");
+        }
+
+        appendToNewestBucket(postId, post.getCommentBucketSeq(), comment);
+
+        Update postUpdate = new Update().inc("commentCount", 1);
+        postUpdate.push("commentPreview").slice(PREVIEW_SIZE).each(comment);
+        if (mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(postId)), postUpdate, Post.class).getMatchedCount() == 0) {
+            // Deleted since it was read; its buckets may already be gone, so take this one out too
+            deleteAllForPost(postId);
+            throw new IllegalArgumentException("Post not found");
+        }
+        return comment;
+    }
+
+    /**
+     * Pushes into bucket seq while it has room. When it is missing it is opened
+     * (the unique postId/seq index lets only one concurrent upsert win); when it
+     * is full the post's bucket counter is raised past it with $max, so every
+     * writer that saw the same full bucket agrees on the next one.
+     */
+    private void appendToNewestBucket(ObjectId postId, int seq, Comment comment) {
+        Update append = new Update().push("comments", comment).inc("count", 1);
+        for (int attempt = 0; attempt < MAX_APPEND_ATTEMPTS; attempt++) {
+            Query open = new Query(Criteria.where("postId").is(postId).and("seq").is(seq).and("count").lt(BUCKET_SIZE));
+            if (mongoTemplate.updateFirst(open, append, CommentBucket.class).getMatchedCount() > 0) {
+                return;
+            }
+            try {
+                mongoTemplate.upsert(open, append, CommentBucket.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                // Bucket seq exists: either another writer just opened it or it is full
+                if (mongoTemplate.updateFirst(open, append, CommentBucket.class).getMatchedCount() > 0) {
+                    return;
+                }
+            }
+            Query byId = new Query(Criteria.where("_id").is(postId));
+            byId.fields().include("commentBucketSeq");
+            Post post = mongoTemplate.findAndModify(
+                byId,
+                new Update().max("commentBucketSeq", seq + 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class
+            );
+            if (post == null) {
+                throw new IllegalArgumentException("Post not found");
+            }
+            seq = post.getCommentBucketSeq();
+        }
+        throw new IllegalStateException("Could not place comment on post " + postId);
+    }
+
+    public Comment updateComment(ObjectId postId, ObjectId userId, Comment updatedComment) {
+        Criteria match = commentMatch(userId, updatedComment.getTimestamp());
+
+        Query query = new Query(Criteria.where("postId").is(postId).and("comments").elemMatch(match));
+        query.fields().elemMatch("comments", match);
+        CommentBucket bucket = mongoTemplate.findAndModify(
+            query,
+            new Update().set("comments.$.textBody", updatedComment.getTextBody()),
+            FindAndModifyOptions.options().returnNew(true),
+            CommentBucket.class
+        );
+        if (bucket == null || bucket.getComments().isEmpty()) {
+            throw new IllegalArgumentException("Comment not found or unauthorized");
+        }
+
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(postId).and("commentPreview").elemMatch(match)),
+            new Update().set("commentPreview.$.textBody", updatedComment.getTextBody()),
+            Post.class
+        );
+        return bucket.getComments().get(0);
+    }
+
+    public void deleteComment(ObjectId postId, ObjectId userId, Date timestamp) {
+        Criteria match = commentMatch(userId, timestamp);
+
+        UpdateResult result = mongoTemplate.updateFirst(
+            new Query(Criteria.where("postId").is(postId).and("comments").elemMatch(match)),
+            new Update().pull("comments", Query.query(match)),
+            CommentBucket.class
+        );
+        if (result.getModifiedCount() == 0) {
+            throw new IllegalArgumentException("Comment not found or unauthorized");
+        }
+
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(postId)),
+            new Update().inc("commentCount", -1),
+            Post.class
+        );
+        UpdateResult previewResult = mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(postId).and("commentPreview").elemMatch(match)),
+            new Update().pull("commentPreview", Query.query(match)),
+            Post.class
+        );
+        if (previewResult.getModifiedCount() > 0) {
+            refillPreview(postId);
+        }
+    }
+
+    // Resets the preview to the first PREVIEW_SIZE comments, reading buckets oldest first
+    private void refillPreview(ObjectId postId) {
+        Query oldestFirst = new Query(Criteria.where("postId").is(postId).and("comments.0").exists(true))
+                .with(Sort.by(Sort.Direction.ASC, "seq"));
+        List<Comment> preview = new ArrayList<>(PREVIEW_SIZE);
+        try (Stream<CommentBucket> buckets = mongoTemplate.stream(oldestFirst, CommentBucket.class)) {
+            Iterator<CommentBucket> iterator = buckets.iterator();
+            while (preview.size() < PREVIEW_SIZE && iterator.hasNext()) {
+                for (Comment comment : iterator.next().getComments()) {
+                    if (preview.size() == PREVIEW_SIZE) {
+                        break;
+                    }
+                    preview.add(comment);
+                }
+            }
+        }
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(postId)),
+            new Update().set("commentPreview", preview),
+            Post.class
+        );
+    }
+
+    public void deleteAllForPost(ObjectId postId) {
+        mongoTemplate.remove(new Query(Criteria.where("postId").is(postId)), CommentBucket.class);
+    }
+
+    // Comments are identified by author and timestamp; user ids are stored as hex strings
+    private Criteria commentMatch(ObjectId userId, Date timestamp) {
+        return Criteria.where("user.userId").is(userId.toHexString()).and("timestamp").is(timestamp);
+    }
+}
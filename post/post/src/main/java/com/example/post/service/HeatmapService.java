@@ -0,0 +1,294 @@
+package com.example.post.service;
+
+import com.example.post.models.HeatCell;
+import com.example.post.models.Heatmap;
+import com.example.post.models.HeatmapTile;
+import com.example.post.models.Post;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-aggregated sighting density. Every located post adds one to its
+ * geohash cell at each precision up to {@link #CELL_PRECISION}, for its
+ * species and for the all-species total, on its UTC day, its UTC month and
+ * all time. A heatmap request then reads whole months and the odd days at
+ * either end of its range, or the all-time row, and never touches the posts.
+ *
+ * <p>A post is counted once, by whichever of the rebuild and the create path
+ * first sets its heatCounted flag; edits and deletes only adjust counters for
+ * flagged posts.
+ */
+@Service
+public class HeatmapService {
+
+    // Finest stored cell, roughly 1.2 x 0.6 km
+    static final int CELL_PRECISION = 6;
+    static final String SPAN_DAY = "day";
+    static final String SPAN_MONTH = "month";
+    static final String SPAN_ALL = "all";
+    private static final int MAX_TILES = 2048;
+    private static final String STATE_COLLECTION = "sighting_heat_state";
+
+    private final MongoTemplate mongoTemplate;
+    private final ClaimedRun rebuild;
+
+    public HeatmapService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuild = new ClaimedRun(mongoTemplate, STATE_COLLECTION);
+    }
+
+    // Until a rebuild has started, new posts are left for it to count
+    public void recordCreated(ObjectId postId) {
+        try {
+            if (rebuild.isReady()) {
+                count(postId);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to update sighting heatmap: " + e.getMessage());
+        }
+    }
+
+    // removed is the document the delete took out; an uncounted post was never added
+    public void recordDeleted(Post removed) {
+        if (Boolean.TRUE.equals(removed.getHeatCounted())) {
+            record(removed.getLocation(), removed.getBird(), removed.getTimestamp(), -1);
+        }
+    }
+
+    // previous is the pre-image of the edit that set newLocation
+    public void recordMoved(Post previous, GeoJsonPoint newLocation) {
+        if (Boolean.TRUE.equals(previous.getHeatCounted())) {
+            record(previous.getLocation(), previous.getBird(), previous.getTimestamp(), -1);
+            record(newLocation, previous.getBird(), previous.getTimestamp(), 1);
+        }
+    }
+
+    // Best effort: a failed counter update must not fail the post write
+    private void record(GeoJsonPoint location, ObjectId bird, Date timestamp, int delta) {
+        if (location == null || timestamp == null) {
+            return;
+        }
+        try {
+            Map<CellKey, Long> increments = new HashMap<>();
+            addIncrements(increments, location, bird, timestamp, delta);
+            write(increments);
+        } catch (Exception e) {
+            System.err.println("Failed to update sighting heatmap: " + e.getMessage());
+        }
+    }
+
+    // bbox is minLng,minLat,maxLng,maxLat; minLng > maxLng crosses the antimeridian. from/to are inclusive UTC days.
+    public Heatmap getHeatmap(String bbox, int zoom, ObjectId bird, LocalDate from, LocalDate to) {
+        double[] box = parseBbox(bbox);
+        if (zoom < 0 || zoom > 24) {
+            throw new IllegalArgumentException("zoom must be between 0 and 24");
+        }
+
+        // Coarsen until the viewport fits in MAX_TILES cells
+        int precision = precisionForZoom(zoom);
+        List<String> cells = coveringCells(box, precision);
+        while (cells == null) {
+            cells = coveringCells(box, --precision);
+        }
+
+        Criteria criteria = Criteria.where("cell").in(cells).and("bird").is(bird);
+        criteria.andOperator(periodCriteria(from, to));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.group("cell").sum("count").as("count"),
+            Aggregation.match(Criteria.where("count").gt(0))
+        );
+
+        List<HeatmapTile> tiles = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, HeatCell.class, Document.class).getMappedResults()) {
+            String cell = row.getString("_id");
+            double[] center = Geohash.center(cell);
+            tiles.add(new HeatmapTile(cell, center[0], center[1], ((Number) row.get("count")).longValue()));
+        }
+        return new Heatmap(precision, tiles);
+    }
+
+    // Whole months in the range come from month rows, the partial months at either end from day rows
+    static Criteria periodCriteria(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return Criteria.where("span").is(SPAN_ALL);
+        }
+        LocalDate end = to == null ? null : to.plusDays(1);
+        LocalDate monthsFrom = from == null ? null
+                : from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+        LocalDate monthsTo = end == null ? null : end.withDayOfMonth(1);
+        if (monthsFrom != null && monthsTo != null && !monthsFrom.isBefore(monthsTo)) {
+            return span(SPAN_DAY, from, end);
+        }
+
+        List<Criteria> parts = new ArrayList<>();
+        parts.add(span(SPAN_MONTH, monthsFrom, monthsTo));
+        if (from != null && from.isBefore(monthsFrom)) {
+            parts.add(span(SPAN_DAY, from, monthsFrom));
+        }
+        if (end != null && monthsTo.isBefore(end)) {
+            parts.add(span(SPAN_DAY, monthsTo, end));
+        }
+        return parts.size() == 1 ? parts.get(0) : new Criteria().orOperator(parts);
+    }
+
+    // Rows of one span whose day falls in [from, to); a null bound is open
+    private static Criteria span(String span, LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("span").is(span);
+        Criteria day = criteria.and("day");
+        if (from != null) {
+            day.gte(startOfDay(from));
+        }
+        if (to != null) {
+            day.lt(startOfDay(to));
+        }
+        return criteria;
+    }
+
+    /**
+     * Counts every located post the write path has not, the first time the
+     * counters are used. Called after the location backfill so legacy posts
+     * are included. One instance claims the run; each post is flagged and
+     * added on its own, so a post deleted or moved mid-run is either counted
+     * and then adjusted or never counted, and a run taken over after a crash
+     * loses at most the post it was writing.
+     */
+    public void rebuildIfNeeded() {
+        if (!rebuild.claim()) {
+            return;
+        }
+        rebuild.markReady();
+        long posts = rebuild.countUnflagged("heatCounted", this::count);
+        rebuild.complete(new Update().set("posts", posts));
+        System.out.println("Sighting heatmap rebuilt from " + posts + " posts");
+    }
+
+    // Whichever caller flips the flag adds the post; everyone else sees null and leaves it
+    boolean count(ObjectId postId) {
+        Post post = rebuild.flag(postId, "heatCounted", "location", "bird", "timestamp");
+        if (post == null) {
+            return false;
+        }
+        record(post.getLocation(), post.getBird(), post.getTimestamp(), 1);
+        return true;
+    }
+
+    private void addIncrements(Map<CellKey, Long> increments, GeoJsonPoint location, ObjectId bird, Date timestamp, long delta) {
+        String finest = Geohash.encode(location.getY(), location.getX(), CELL_PRECISION);
+        LocalDate date = timestamp.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        Date day = startOfDay(date);
+        Date month = startOfDay(date.withDayOfMonth(1));
+        List<ObjectId> birds = bird == null ? Collections.singletonList(null) : Arrays.asList(null, bird);
+        for (int precision = 1; precision <= CELL_PRECISION; precision++) {
+            String cell = finest.substring(0, precision);
+            for (ObjectId counted : birds) {
+                increments.merge(new CellKey(cell, counted, SPAN_DAY, day), delta, Long::sum);
+                increments.merge(new CellKey(cell, counted, SPAN_MONTH, month), delta, Long::sum);
+                increments.merge(new CellKey(cell, counted, SPAN_ALL, null), delta, Long::sum);
+            }
+        }
+    }
+
+    private void write(Map<CellKey, Long> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, HeatCell.class);
+        increments.forEach((key, delta) -> bulk.upsert(
+            new Query(Criteria.where("cell").is(key.cell()).and("bird").is(key.bird())
+                    .and("span").is(key.span()).and("day").is(key.day())),
+            new Update().inc("count", delta)
+        ));
+        bulk.execute();
+    }
+
+    // Finest cell still at least 1/32 of a web map tile wide at this zoom
+    private static int precisionForZoom(int zoom) {
+        double tileWidth = 360.0 / (1L << zoom);
+        for (int precision = CELL_PRECISION; precision > 1; precision--) {
+            if (Geohash.cellWidth(precision) >= tileWidth / 32) {
+                return precision;
+            }
+        }
+        return 1;
+    }
+
+    // Cells of one precision covering the box, or null when there would be more than MAX_TILES
+    private static List<String> coveringCells(double[] box, int precision) {
+        double minLng = box[0];
+        double minLat = box[1];
+        double maxLng = box[2];
+        double maxLat = box[3];
+
+        double height = Geohash.cellHeight(precision);
+        double width = Geohash.cellWidth(precision);
+        int totalRows = (int) Math.round(180 / height);
+        int totalColumns = (int) Math.round(360 / width);
+
+        int firstRow = (int) Math.floor((minLat + 90) / height);
+        int lastRow = Math.min(totalRows - 1, (int) Math.floor((maxLat + 90) / height));
+        double span = maxLng >= minLng ? maxLng - minLng : maxLng + 360 - minLng;
+        int firstColumn = (int) Math.floor((minLng + 180) / width);
+        int columns = Math.min(totalColumns, (int) Math.floor((minLng + span + 180) / width) - firstColumn + 1);
+
+        long tiles = (long) (lastRow - firstRow + 1) * columns;
+        if (tiles > MAX_TILES && precision > 1) {
+            return null;
+        }
+
+        List<String> cells = new ArrayList<>((int) tiles);
+        for (int row = firstRow; row <= lastRow; row++) {
+            double lat = -90 + (row + 0.5) * height;
+            for (int offset = 0; offset < columns; offset++) {
+                int column = (firstColumn + offset) % totalColumns;
+                cells.add(Geohash.encode(lat, -180 + (column + 0.5) * width, precision));
+            }
+        }
+        return cells;
+    }
+
+    private static double[] parseBbox(String bbox) {
+        String[] parts = bbox == null ? new String[0] : bbox.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        double[] box = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                box[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        if (!(box[0] >= -180 && box[0] <= 180 && box[2] >= -180 && box[2] <= 180)
+                || !(box[1] >= -90 && box[1] <= box[3] && box[3] <= 90)) {
+            throw new IllegalArgumentException("bbox is out of range");
+        }
+        return box;
+    }
+
+    private static Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private record CellKey(String cell, ObjectId bird, String span, Date day) {}
+}
@@ -0,0 +1,37 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds likeCount for posts written before the counter existed. Runs once per
+ * startup and is a no-op once every post has the field.
+ */
+@Component
+public class LikeCountBackfill {
+
+    private final MongoTemplate mongoTemplate;
+
+    public LikeCountBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLikeCounts() {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("likeCount")
+                .toValue(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull("likes").then(List.of())));
+
+        mongoTemplate.updateMulti(new Query(Criteria.where("likeCount").exists(false)), update, Post.class);
+    }
+}
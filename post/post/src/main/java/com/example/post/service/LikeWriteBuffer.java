@@ -0,0 +1,183 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind mode for likes. Intents are coalesced per post and
+ * flushed as one unordered bulkWrite every flush interval. Only the latest
+ * intent per user is kept: both writes are guarded, so an earlier intent may
+ * have been a no-op and a like and an unlike can't be assumed to cancel.
+ *
+ * max-pending is a hard cap: a slot is reserved before an intent is added,
+ * and a caller that finds the buffer full flushes synchronously first, so
+ * producers are slowed to the database's pace instead of dropping likes. A
+ * failed flush puts its intents back and the next flush retries them; the
+ * conditional filters make a retried intent a no-op if it had already landed.
+ */
+@Component
+public class LikeWriteBuffer {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+
+    // postId -> (userId -> true for like, false for unlike)
+    private final ConcurrentHashMap<ObjectId, Map<ObjectId, Boolean>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final ScheduledExecutorService scheduler;
+
+    public LikeWriteBuffer(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${post.likes.write-behind.enabled:false}") boolean enabled,
+            @Value("${post.likes.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${post.likes.write-behind.max-pending:10000}") int maxPending
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+
+        Gauge.builder("post.likes.buffer.depth", pendingCount, AtomicInteger::get)
+                .description("Like/unlike intents waiting to be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("post.likes.buffer.flush")
+                .description("Time spent writing one batch of buffered likes")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "like-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(ObjectId postId, ObjectId userId, boolean like) {
+        // Reserve a slot up front so concurrent callers can't overshoot the cap
+        while (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            flush();
+        }
+        if (!record(postId, userId, like, true)) {
+            // Replaced an intent already counted, so the reserved slot isn't needed
+            pendingCount.decrementAndGet();
+        }
+    }
+
+    // Stores one intent; replace says whether it wins over one already pending for the same
+    // user. Returns true when it took a new slot rather than replacing or yielding.
+    private boolean record(ObjectId postId, ObjectId userId, boolean like, boolean replace) {
+        boolean[] added = new boolean[1];
+        pending.compute(postId, (id, intents) -> {
+            Map<ObjectId, Boolean> userIntents = intents == null ? new HashMap<>() : intents;
+            Boolean previous = replace ? userIntents.put(userId, like) : userIntents.putIfAbsent(userId, like);
+            added[0] = previous == null;
+            return userIntents;
+        });
+        return added[0];
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+            Map<ObjectId, Map<ObjectId, Boolean>> batch = new HashMap<>();
+            int operations = 0;
+
+            for (ObjectId postId : pending.keySet()) {
+                Map<ObjectId, Boolean> intents = pending.remove(postId);
+                if (intents == null) {
+                    continue;
+                }
+                pendingCount.addAndGet(-intents.size());
+                batch.put(postId, intents);
+
+                for (Map.Entry<ObjectId, Boolean> intent : intents.entrySet()) {
+                    ObjectId userId = intent.getKey();
+                    if (intent.getValue()) {
+                        bulk.updateOne(
+                            new Query(Criteria.where("_id").is(postId).and("likes").ne(userId)),
+                            new Update().addToSet("likes", userId).inc("likeCount", 1)
+                        );
+                    } else {
+                        bulk.updateOne(
+                            new Query(Criteria.where("_id").is(postId).and("likes").is(userId)),
+                            new Update().pull("likes", userId).inc("likeCount", -1)
+                        );
+                    }
+                    operations++;
+                }
+            }
+
+            if (operations > 0) {
+                try {
+                    flushTimer.record(() -> {
+                        bulk.execute();
+                    });
+                } catch (RuntimeException e) {
+                    // Part of the batch may have landed; the guarded filters make retrying those
+                    // a no-op. An intent submitted since is newer and wins over the retried one.
+                    batch.forEach((postId, intents) -> intents.forEach((userId, like) -> {
+                        if (record(postId, userId, like, false)) {
+                            pendingCount.incrementAndGet();
+                        }
+                    }));
+                    throw e;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("Failed to flush buffered likes: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes posts as NDJSON straight from a Mongo cursor. Only one cursor batch
+ * is held at a time and the output is flushed after each batch, so memory
+ * stays flat and the first lines reach the client before the query finishes.
+ */
+@Service
+public class PostExportService {
+
+    private static final byte[] NEWLINE = { '\n' };
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectWriter writer;
+    private final int batchSize;
+
+    public PostExportService(
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${post.export.batch-size:500}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.writer = objectMapper.writerFor(Post.class);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // Returns the number of posts written
+    public long export(ObjectId groupId, String userId, Date from, Date to, OutputStream out) throws IOException {
+        Criteria criteria = new Criteria();
+        if (groupId != null) {
+            criteria.and("group").is(groupId);
+        }
+        if (userId != null) {
+            criteria.and("user.userId").is(userId);
+        }
+        if (from != null || to != null) {
+            Criteria range = Criteria.where("timestamp");
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lt(to);
+            }
+            criteria.andOperator(range);
+        }
+
+        // _id order keeps the output stable; group_id and author_id serve it without a blocking sort
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.asc("_id")))
+                .cursorBatchSize(batchSize);
+
+        long written = 0;
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            Iterator<Post> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                Post post = iterator.next();
+                post.setImage(PostService.resolveImageReference(post.getImage()));
+                out.write(writer.writeValueAsBytes(post));
+                out.write(NEWLINE);
+                if (++written % batchSize == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
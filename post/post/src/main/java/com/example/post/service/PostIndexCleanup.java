@@ -0,0 +1,44 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops post indexes that a newer @CompoundIndex replaced. Auto index
+ * creation has built the replacements by the time this runs, and a name that
+ * is already gone is skipped.
+ */
+@Component
+public class PostIndexCleanup {
+
+    // author_timestamp became author_timestamp_id so the author feed sorts on (timestamp, _id)
+    static final List<String> RETIRED = List.of("author_timestamp");
+
+    private final MongoTemplate mongoTemplate;
+
+    public PostIndexCleanup(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropRetiredIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+            List<String> existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).toList();
+            for (String name : RETIRED) {
+                if (existing.contains(name)) {
+                    indexOps.dropIndex(name);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Post index cleanup failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Seeds the GeoJSON location for posts written before it existed, parsed from
+ * their latitude/longitude tags. Runs once per startup; posts whose tags don't
+ * parse are left without a location and simply don't show up in geo queries.
+ * The heatmap counters are seeded afterwards, so they include these posts.
+ */
+@Component
+public class PostLocationBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final HeatmapService heatmapService;
+
+    public PostLocationBackfill(MongoTemplate mongoTemplate, HeatmapService heatmapService) {
+        this.mongoTemplate = mongoTemplate;
+        this.heatmapService = heatmapService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLocations() {
+        Query query = new Query(Criteria.where("location").exists(false)
+                .and("tags.latitude").exists(true)
+                .and("tags.longitude").exists(true));
+        query.fields().include("tags");
+
+        int updated = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            for (Post post : (Iterable<Post>) posts::iterator) {
+                GeoJsonPoint location = PostService.locationFromTags(post.getTags());
+                if (location == null) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(post.getId())), new Update().set("location", location));
+                if (++pending == BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                updated += bulk.execute().getModifiedCount();
+            }
+        } catch (Exception e) {
+            System.err.println("Post location backfill failed: " + e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            System.out.println("Post location backfill: " + updated + " posts updated");
+        }
+
+        // Counts only make sense once every post that can have a location has one
+        try {
+            heatmapService.rebuildIfNeeded();
+        } catch (Exception e) {
+            System.err.println("Sighting heatmap rebuild failed: " + e.getMessage());
+        }
+    }
+}
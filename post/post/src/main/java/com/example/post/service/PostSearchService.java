@@ -0,0 +1,177 @@
+package com.example.post.service;
+
+import com.example.post.models.CursorPage;
+import com.example.post.models.PostSearchHit;
+import com.example.post.models.RankCursor;
+import com.mongodb.MongoExecutionTimeoutException;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Full-text search over post headers and bodies, served by the posts text
+ * index (header weighted 3x). Mongo does the stemming, stop words and
+ * scoring; results page by (score desc, _id desc) and every query runs under
+ * a server-side time limit rather than degrading into a collection scan.
+ */
+@Service
+public class PostSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final String[] SUFFIXES = { "ing", "ed", "es", "ly", "s" };
+
+    private final MongoTemplate mongoTemplate;
+    private final long maxTimeMs;
+
+    public PostSearchService(
+            MongoTemplate mongoTemplate,
+            @Value("${post.search.max-time-ms:500}") long maxTimeMs
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxTimeMs = maxTimeMs;
+    }
+
+    public CursorPage<PostSearchHit> search(String q, String after, int limit) {
+        String query = q == null ? "" : q.trim();
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query cannot exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Criteria keyset = new Criteria();
+        if (after != null && !after.isBlank()) {
+            RankCursor cursor = RankCursor.decode(after);
+            keyset.orOperator(
+                Criteria.where("score").lt(cursor.getRank()),
+                Criteria.where("score").is(cursor.getRank()).and("_id").lt(cursor.getId())
+            );
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(TextCriteria.forDefaultLanguage().matching(query)),
+            context -> new Document("$addFields", new Document("score", new Document("$meta", "textScore"))),
+            Aggregation.match(keyset),
+            Aggregation.sort(Sort.by(Sort.Order.desc("score"), Sort.Order.desc("_id"))),
+            Aggregation.limit(pageSize + 1),
+            PostService.summaryProjection().andInclude("score")
+        ).withOptions(AggregationOptions.builder().maxTime(Duration.ofMillis(maxTimeMs)).build());
+
+        List<PostSearchHit> rows;
+        try {
+            rows = mongoTemplate.aggregate(aggregation, "posts", PostSearchHit.class).getMappedResults();
+        } catch (RuntimeException e) {
+            if (isTimeout(e)) {
+                throw new IllegalStateException("Search took longer than " + maxTimeMs + " ms; try a more specific query");
+            }
+            throw e;
+        }
+
+        String next = null;
+        List<PostSearchHit> items = rows;
+        if (rows.size() > pageSize) {
+            items = rows.subList(0, pageSize);
+            PostSearchHit last = items.get(pageSize - 1);
+            next = new RankCursor(last.getScore(), last.getId()).encode();
+        }
+
+        List<String> stems = stems(query);
+        for (PostSearchHit hit : items) {
+            hit.setImage(PostService.resolveImageReference(hit.getImage()));
+            Map<String, List<int[]>> highlights = new LinkedHashMap<>();
+            highlights.put("header", highlight(hit.getHeader(), stems));
+            highlights.put("textBody", highlight(hit.getTextBody(), stems));
+            hit.setHighlights(highlights);
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    // Positive terms of a $text search string, cut down to a rough stem. Negated terms are skipped.
+    static List<String> stems(String query) {
+        Set<String> stems = new LinkedHashSet<>();
+        for (String token : query.split("\\s+")) {
+            if (token.startsWith("-")) {
+                continue;
+            }
+            for (String word : fold(token).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    stems.add(stem(word));
+                }
+            }
+        }
+        return new ArrayList<>(stems);
+    }
+
+    // [start, end) of every word in text that begins with one of the stems
+    static List<int[]> highlight(String text, List<String> stems) {
+        List<int[]> ranges = new ArrayList<>();
+        if (text == null || stems.isEmpty()) {
+            return ranges;
+        }
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            String word = fold(text.substring(start, i));
+            for (String stem : stems) {
+                if (word.startsWith(stem)) {
+                    ranges.add(new int[] { start, i });
+                    break;
+                }
+            }
+        }
+        return ranges;
+    }
+
+    // Only approximates the server's stemmer; good enough to place highlights
+    private static String stem(String word) {
+        for (String suffix : SUFFIXES) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    // Lowercase without accents, matching the text index's case and diacritic insensitivity
+    private static String fold(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoExecutionTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
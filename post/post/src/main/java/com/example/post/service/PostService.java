@@ -1,143 +1,447 @@
 package com.example.post.service;
 
 
-import com.example.post.models.Comment;
+import com.example.post.models.CursorPage;
+import com.example.post.models.FeedCursor;
+import com.example.post.models.LikeStatus;
 import com.example.post.models.Post;
+import com.example.post.models.PostRef;
+import com.example.post.models.PostSummary;
+import com.example.post.models.RankCursor;
+import com.example.post.models.TimelineEntry;
 import com.example.post.models.User;
 import com.example.post.repository.PostDAO;
+import com.example.post.repository.PostQueryEngine;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.core.aggregation.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 1000;
+    // Keeps each $in small enough for the query planner and the BSON size limit
+    private static final int BATCH_CHUNK_SIZE = 200;
+    private static final String MEDIA_PATH_PREFIX = "/media/";
+    private static final double MAX_NEAR_RADIUS_METERS = 100_000;
+    private static final int MAX_VIEWPORT_RESULTS = 500;
+    // Viewport boxes are cut into pieces no wider than this and their edges densified,
+    // since GeoJSON polygon edges are geodesics rather than lines of latitude
+    private static final double VIEWPORT_PIECE_DEGREES = 90;
+    private static final double VIEWPORT_EDGE_STEP_DEGREES = 10;
+
     private final PostDAO sDAO;
+    private final PostQueryEngine queryEngine;
     private final UserService userService;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final CommentService commentService;
+    private final TimelineService timelineService;
+    private final HeatmapService heatmapService;
+    private final TagFacetService tagFacetService;
     private final MongoTemplate mongoTemplate;
     private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
     private final String bucketName;
     private final String postPrefix;
 
     public PostService(
             PostDAO sDAO,
+            PostQueryEngine queryEngine,
             UserService userService,
+            LikeWriteBuffer likeWriteBuffer,
+            CommentService commentService,
+            TimelineService timelineService,
+            HeatmapService heatmapService,
+            TagFacetService tagFacetService,
             MongoTemplate mongoTemplate,
             S3Client s3Client,
-            S3Presigner s3Presigner,
             @Value("${aws.s3.bucket:}") String bucketName,
             @Value("${aws.s3.post-prefix:images}") String postPrefix
     ) {
         this.sDAO = sDAO;
+        this.queryEngine = queryEngine;
         this.userService = userService;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.commentService = commentService;
+        this.timelineService = timelineService;
+        this.heatmapService = heatmapService;
+        this.tagFacetService = tagFacetService;
         this.mongoTemplate = mongoTemplate;
         this.s3Client = s3Client;
-        this.s3Presigner = s3Presigner;
         this.bucketName = bucketName;
         this.postPrefix = postPrefix;
     }
 
-    private List<Post> postsWithBirdLookup(List<Post> posts) {
-        if (posts == null || posts.isEmpty()) {
-            return posts;
+    // Just for testing Spring Boot, can be removed later
+    public Optional<Post> getPostById(ObjectId id) {
+        return queryEngine.findById(id).map(this::withResolvedPostImage);
+    }
+
+    public List<Post> getAllPosts() {
+        return withResolvedPostImages(queryEngine.find(new Criteria()));
+    }
+
+    public CursorPage<PostSummary> getFeedPage(String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        Criteria criteria = new Criteria();
+        if (after != null && !after.isBlank()) {
+            FeedCursor cursor = FeedCursor.decode(after);
+            criteria.orOperator(
+                Criteria.where("timestamp").lt(cursor.getTimestamp()),
+                Criteria.where("timestamp").is(cursor.getTimestamp()).and("_id").lt(cursor.getId())
+            );
         }
 
-        List<AggregationOperation> pipeline = Arrays.asList(
-            Aggregation.match(Criteria.where("_id").in(
-                posts.stream().map(Post::getId).collect(Collectors.toList())
-            )),
-            Aggregation.lookup("birds", "bird", "_id", "birdDetails"),
-            Aggregation.unwind("$birdDetails", true) // preserveNullAndEmptyArrays = true
+        // Fetch one extra row so we know whether another page exists
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"))),
+            Aggregation.limit(pageSize + 1),
+            summaryProjection()
         );
 
-        AggregationResults<Post> results = mongoTemplate.aggregate(
-            Aggregation.newAggregation(pipeline),
-            "posts",
-            Post.class
+        List<PostSummary> rows = mongoTemplate.aggregate(aggregation, "posts", PostSummary.class).getMappedResults();
+
+        String next = null;
+        List<PostSummary> items = rows;
+        if (rows.size() > pageSize) {
+            items = rows.subList(0, pageSize);
+            PostSummary last = items.get(pageSize - 1);
+            next = new FeedCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        items.forEach(summary -> summary.setImage(resolveImageReference(summary.getImage())));
+        return new CursorPage<>(items, next);
+    }
+
+    // Nearest first within radius meters, via $geoNear on the location 2dsphere index
+    public CursorPage<PostSummary> getNearbyPage(double lat, double lng, double radius, Date since, String after, int limit) {
+        requireCoordinates(lat, lng);
+        if (!(radius > 0) || radius > MAX_NEAR_RADIUS_METERS) {
+            throw new IllegalArgumentException("radius must be between 0 and " + (long) MAX_NEAR_RADIUS_METERS + " meters");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+
+        Document geoNear = new Document("near", new Document("type", "Point").append("coordinates", List.of(lng, lat)))
+                .append("key", "location")
+                .append("distanceField", "distance")
+                .append("spherical", true)
+                .append("maxDistance", radius)
+                .append("query", since == null ? new Document() : new Document("timestamp", new Document("$gte", since)));
+
+        // $geoNear orders by distance only; (distance, _id) keeps ties at the same spot stable across pages
+        Criteria keyset = new Criteria();
+        if (after != null && !after.isBlank()) {
+            RankCursor cursor = RankCursor.decode(after);
+            if (cursor.getRank() < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            geoNear.append("minDistance", cursor.getRank());
+            keyset.orOperator(
+                Criteria.where("distance").gt(cursor.getRank()),
+                Criteria.where("distance").is(cursor.getRank()).and("_id").gt(cursor.getId())
+            );
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            context -> new Document("$geoNear", geoNear),
+            Aggregation.match(keyset),
+            Aggregation.sort(Sort.by(Sort.Order.asc("distance"), Sort.Order.asc("_id"))),
+            Aggregation.limit(pageSize + 1),
+            summaryProjection().andInclude("distance")
         );
 
-        return withResolvedPostImages(results.getMappedResults());
+        List<PostSummary> rows = mongoTemplate.aggregate(aggregation, "posts", PostSummary.class).getMappedResults();
+
+        String next = null;
+        List<PostSummary> items = rows;
+        if (rows.size() > pageSize) {
+            items = rows.subList(0, pageSize);
+            PostSummary last = items.get(pageSize - 1);
+            next = new RankCursor(last.getDistance(), last.getId()).encode();
+        }
+
+        items.forEach(summary -> summary.setImage(resolveImageReference(summary.getImage())));
+        return new CursorPage<>(items, next);
     }
 
-    // Just for testing Spring Boot, can be removed later
-    public Optional<Post> getPostById(ObjectId id) {
-        Optional<Post> post = sDAO.findById(id);
-        if (post.isPresent()) {
-            List<Post> enriched = postsWithBirdLookup(List.of(post.get()));
-            return enriched.isEmpty() ? post.map(this::withResolvedPostImage) : Optional.of(enriched.get(0));
+    // Newest sightings inside a map viewport. minLng > maxLng means the box crosses the antimeridian.
+    public List<PostSummary> getSightingsInViewport(double minLat, double minLng, double maxLat, double maxLng, Date since, int limit) {
+        requireCoordinates(minLat, minLng);
+        requireCoordinates(maxLat, maxLng);
+        double width = maxLng >= minLng ? maxLng - minLng : maxLng + 360 - minLng;
+        if (minLat >= maxLat || width == 0) {
+            throw new IllegalArgumentException("Viewport must have minLat < maxLat and minLng != maxLng");
         }
-        return post;
+        int max = Math.max(1, Math.min(limit, MAX_VIEWPORT_RESULTS));
+
+        int pieces = Math.max(1, (int) Math.ceil(width / VIEWPORT_PIECE_DEGREES));
+        List<Criteria> boxes = new ArrayList<>(pieces);
+        for (int i = 0; i < pieces; i++) {
+            double west = minLng + width * i / pieces;
+            double east = minLng + width * (i + 1) / pieces;
+            boxes.add(Criteria.where("location").within(viewportPolygon(minLat, west, maxLat, east)));
+        }
+
+        Criteria criteria = boxes.size() == 1 ? boxes.get(0) : new Criteria().orOperator(boxes);
+        if (since != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("timestamp").gte(since));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"))),
+            Aggregation.limit(max),
+            summaryProjection()
+        );
+
+        List<PostSummary> items = mongoTemplate.aggregate(aggregation, "posts", PostSummary.class).getMappedResults();
+        items.forEach(summary -> summary.setImage(resolveImageReference(summary.getImage())));
+        return items;
     }
 
-    public List<Post> getAllPosts() {
-        return postsWithBirdLookup(sDAO.findAll());
+    // Counter-clockwise ring; west/east may run past 180 and are wrapped back into range
+    private GeoJsonPolygon viewportPolygon(double south, double west, double north, double east) {
+        int steps = Math.max(1, (int) Math.ceil((east - west) / VIEWPORT_EDGE_STEP_DEGREES));
+        List<Point> ring = new ArrayList<>(2 * steps + 3);
+        for (int i = 0; i <= steps; i++) {
+            ring.add(new Point(wrapLongitude(west + (east - west) * i / steps), south));
+        }
+        for (int i = steps; i >= 0; i--) {
+            ring.add(new Point(wrapLongitude(west + (east - west) * i / steps), north));
+        }
+        ring.add(ring.get(0));
+        return new GeoJsonPolygon(ring);
+    }
+
+    private static double wrapLongitude(double lng) {
+        return lng > 180 ? lng - 360 : lng;
+    }
+
+    private static void requireCoordinates(double lat, double lng) {
+        if (!(lat >= -90 && lat <= 90) || !(lng >= -180 && lng <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+        }
+    }
+
+    // Posts keep their coordinates in tags as strings; null when missing or out of range
+    static GeoJsonPoint locationFromTags(Map<String, String> tags) {
+        if (tags == null || tags.get("latitude") == null || tags.get("longitude") == null) {
+            return null;
+        }
+        try {
+            double lat = Double.parseDouble(tags.get("latitude").trim());
+            double lng = Double.parseDouble(tags.get("longitude").trim());
+            requireCoordinates(lat, lng);
+            return new GeoJsonPoint(lng, lat);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static ProjectionOperation summaryProjection() {
+        return Aggregation.project("user", "header", "tags", "bird", "flagged", "group", "help", "image", "textBody", "timestamp", "commentCount")
+                .and(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull("likes").then(List.of()))).as("likeCount")
+                .and("commentPreview").as("recentComments");
+    }
+
+    public List<PostRef> getPostRefsByIds(List<String> ids) {
+        List<ObjectId> postIds = batchIds(ids);
+        List<PostRef> refs = new ArrayList<>(postIds.size());
+        for (int start = 0; start < postIds.size(); start += BATCH_CHUNK_SIZE) {
+            List<ObjectId> chunk = postIds.subList(start, Math.min(start + BATCH_CHUNK_SIZE, postIds.size()));
+            Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").in(chunk)),
+                Aggregation.project("bird", "timestamp").and("user.userId").as("userId")
+            );
+            refs.addAll(mongoTemplate.aggregate(aggregation, "posts", PostRef.class).getMappedResults());
+        }
+        return refs;
+    }
+
+    // Same lookup as getPostRefsByIds with the feed's summary fields, for pages that render the posts; newest first
+    public List<PostSummary> getPostSummariesByIds(List<String> ids) {
+        List<ObjectId> postIds = batchIds(ids);
+        List<PostSummary> summaries = new ArrayList<>(postIds.size());
+        for (int start = 0; start < postIds.size(); start += BATCH_CHUNK_SIZE) {
+            List<ObjectId> chunk = postIds.subList(start, Math.min(start + BATCH_CHUNK_SIZE, postIds.size()));
+            Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").in(chunk)),
+                summaryProjection()
+            );
+            summaries.addAll(mongoTemplate.aggregate(aggregation, "posts", PostSummary.class).getMappedResults());
+        }
+        summaries.sort(Comparator.comparing(PostSummary::getTimestamp, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(PostSummary::getId, Comparator.reverseOrder()));
+        summaries.forEach(summary -> summary.setImage(resolveImageReference(summary.getImage())));
+        return summaries;
+    }
+
+    // De-duplicated, validated ids of one batch request
+    private static List<ObjectId> batchIds(List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids per batch");
+        }
+
+        List<ObjectId> postIds = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (!ObjectId.isValid(id)) {
+                throw new IllegalArgumentException("Invalid post id: " + id);
+            }
+            postIds.add(new ObjectId(id));
+        }
+        return postIds;
+    }
+
+    // Newest first, only bird and timestamp; served by the user.userId/timestamp/_id index
+    public CursorPage<PostRef> getPostsByAuthor(String userId, Date from, Date to, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_BATCH_SIZE));
+
+        Criteria criteria = Criteria.where("user.userId").is(userId);
+        if (from != null || to != null) {
+            Criteria range = Criteria.where("timestamp");
+            if (from != null) {
+                range.gte(from);
+            }
+            if (to != null) {
+                range.lt(to);
+            }
+            criteria.andOperator(range);
+        }
+        if (after != null && !after.isBlank()) {
+            FeedCursor cursor = FeedCursor.decode(after);
+            criteria.orOperator(
+                Criteria.where("timestamp").lt(cursor.getTimestamp()),
+                Criteria.where("timestamp").is(cursor.getTimestamp()).and("_id").lt(cursor.getId())
+            );
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id")))
+                .limit(pageSize + 1);
+        query.fields().include("bird", "timestamp");
+
+        List<PostRef> rows = mongoTemplate.find(query, PostRef.class, "posts");
+        rows.forEach(row -> row.setUserId(userId));
+
+        String next = null;
+        List<PostRef> items = rows;
+        if (rows.size() > pageSize) {
+            items = rows.subList(0, pageSize);
+            PostRef last = items.get(pageSize - 1);
+            next = new FeedCursor(last.getTimestamp(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, next);
     }
 
     public List<Post> getAllPostsByGroup(ObjectId groupId) {
-        return postsWithBirdLookup(sDAO.findByGroup(groupId));
+        return withResolvedPostImages(queryEngine.find(Criteria.where("group").is(groupId)));
     }
 
+    // The removed document drives the counters, so of two concurrent deletes only one undoes them
     public void deletePostById(ObjectId id){
-        Optional<Post> existingPost = sDAO.findById(id);
-        existingPost.ifPresent(post -> deletePostImageIfManaged(post.getImage()));
-        sDAO.deleteById(id);
+        Post post = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), Post.class);
+        commentService.deleteAllForPost(id);
+        timelineService.removePost(id);
+        if (post == null) {
+            return;
+        }
+        deletePostImageIfManaged(post.getImage());
+        userService.recordSighting(post.getUser().getUserId(), post, -1);
+        heatmapService.recordDeleted(post);
+        tagFacetService.recordDeleted(post);
     }
 
+    // $sets only the edited fields, so likes, likeCount and the comment counters kept by
+    // their own atomic updates are never written back from a stale read. likes in the body
+    // is ignored: it only changes through like/unlike.
     public Post updatePost(ObjectId id, Post updatedPost, MultipartFile imageFile) {
-        Post existingPost = sDAO.findById(id)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        // Update only fields that are not null
+        Update update = new Update();
         if (updatedPost.getHeader() != null) {
-            existingPost.setHeader(updatedPost.getHeader());
+            update.set("header", updatedPost.getHeader());
         }
         if (updatedPost.getTextBody() != null) {
-            existingPost.setTextBody(updatedPost.getTextBody());
-        }
-        if (updatedPost.getComments() != null && !updatedPost.getComments().isEmpty()) {
-            existingPost.setComments(updatedPost.getComments());
-        }
-        if (updatedPost.getLikes() != null) {
-            existingPost.setLikes(updatedPost.getLikes());
+            update.set("textBody", updatedPost.getTextBody());
         }
+        GeoJsonPoint newLocation = null;
         if (updatedPost.getTags() != null) {
-            existingPost.setTags(updatedPost.getTags());
+            newLocation = locationFromTags(updatedPost.getTags());
+            update.set("tags", updatedPost.getTags())
+                    .set("location", newLocation)
+                    .set("tagIndex", TagFacetService.tagIndexOf(updatedPost.getTags()));
         }
         if (updatedPost.getFlagged() != null) {
-            existingPost.setFlagged(updatedPost.getFlagged());
+            update.set("flagged", updatedPost.getFlagged());
         }
         if (updatedPost.getHelp() != null) {
-            existingPost.setHelp(updatedPost.getHelp());
+            update.set("help", updatedPost.getHelp());
         }
 
         // Handle image file if provided
+        String imagePath = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            deletePostImageIfManaged(existingPost.getImage());
-            String imagePath = uploadImageToS3(imageFile);
-            existingPost.setImage(imagePath);
+            imagePath = uploadImageToS3(imageFile);
+            update.set("image", imagePath);
         }
 
-        Post saved = sDAO.save(existingPost);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        if (update.getUpdateObject().isEmpty()) {
+            Post unchanged = mongoTemplate.findById(id, Post.class);
+            if (unchanged == null) {
+                throw new RuntimeException("Post not found");
+            }
+            return withResolvedPostImage(unchanged);
+        }
+
+        // The pre-image gives the counters the exact values this write replaced
+        Post previous = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Post.class
+        );
+        if (previous == null) {
+            if (imagePath != null) {
+                deletePostImageIfManaged(imagePath);
+            }
+            throw new RuntimeException("Post not found");
+        }
+        if (imagePath != null) {
+            deletePostImageIfManaged(previous.getImage());
+        }
+
+        if (updatedPost.getTags() != null) {
+            if (!Objects.equals(previous.getLocation(), newLocation)) {
+                heatmapService.recordMoved(previous, newLocation);
+            }
+            tagFacetService.recordEdited(previous, updatedPost.getTags());
+        }
+
+        Post saved = mongoTemplate.findById(id, Post.class);
+        if (saved == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return withResolvedPostImage(saved);
     }
 
     public Post createPost(Post newPost, MultipartFile imageFile) {
@@ -146,6 +450,9 @@ public class PostService {
             String imagePath = uploadImageToS3(imageFile);
             newPost.setImage(imagePath);
         }
+        newPost.setLikeCount(newPost.getLikes() == null ? 0 : newPost.getLikes().size());
+        newPost.setLocation(locationFromTags(newPost.getTags()));
+        newPost.setTagIndex(TagFacetService.tagIndexOf(newPost.getTags()));
 
         Post savedPost = sDAO.save(newPost);
 
@@ -153,9 +460,12 @@ public class PostService {
         String postId = savedPost.getId().toHexString();
 
         userService.addPostToUser(userId, postId);
+        userService.recordSighting(userId, savedPost, 1);
+        timelineService.fanOut(savedPost);
+        heatmapService.recordCreated(savedPost.getId());
+        tagFacetService.recordCreated(savedPost.getId());
 
-        List<Post> enriched = postsWithBirdLookup(List.of(savedPost));
-        return enriched.isEmpty() ? savedPost : enriched.get(0);
+        return withResolvedPostImage(savedPost);
     }
 
     private String uploadImageToS3(MultipartFile imageFile){
@@ -201,36 +511,23 @@ public class PostService {
     }
 
     private Post withResolvedPostImage(Post post) {
-        if (post == null || post.getImage() == null || post.getImage().isBlank()) {
-            return post;
+        if (post != null) {
+            post.setImage(resolveImageReference(post.getImage()));
         }
+        return post;
+    }
 
-        String imageReference = post.getImage();
-        if (imageReference.startsWith("http://") || imageReference.startsWith("https://") || imageReference.startsWith("/")) {
-            return post;
+    static String resolveImageReference(String imageReference) {
+        if (imageReference == null || imageReference.isBlank()) {
+            return imageReference;
         }
 
-        try {
-            requireS3Configured();
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(imageReference)
-                    .build();
-
-            GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofHours(1))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            String presignedUrl = s3Presigner.presignGetObject(getObjectPresignRequest)
-                    .url()
-                    .toExternalForm();
-            post.setImage(presignedUrl);
-        } catch (Exception ignored) {
+        if (imageReference.startsWith("http://") || imageReference.startsWith("https://") || imageReference.startsWith("/")) {
+            return imageReference;
         }
 
-        return post;
+        // Stable path served by MediaController, which redirects to a presigned url
+        return MEDIA_PATH_PREFIX + imageReference;
     }
 
     private void deletePostImageIfManaged(String imageReference) {
@@ -259,160 +556,121 @@ public class PostService {
     }
 
     public List<Post> getAllPostsByFriends(String userId) {
-        User user = userService.getUserById(userId);
-
-        ObjectId[] friendIds = user.getFriends();
-
-        if (friendIds == null || friendIds.length == 0){
-            return List.of();
-        }
+        return getFriendFeedPage(userId, null, MAX_FEED_PAGE_SIZE).getItems();
+    }
 
-        List<User> friends = userService.findAllById(List.of(friendIds));
+    // Reads the materialized timeline instead of walking every friend's post list
+    public CursorPage<Post> getFriendFeedPage(String userId, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        FeedCursor cursor = after == null || after.isBlank() ? null : FeedCursor.decode(after);
 
-        List<ObjectId> allPostIds = new ArrayList<>();
+        List<TimelineEntry> entries = timelineService.readPage(userId, cursor, pageSize + 1);
 
-        for (User friend: friends){
-            if(friend.getPosts() != null){
-                allPostIds.addAll(List.of(friend.getPosts()));
-            }
+        String next = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            TimelineEntry last = entries.get(pageSize - 1);
+            next = new FeedCursor(last.getTimestamp(), last.getPostId()).encode();
         }
-
-        if (allPostIds.isEmpty()){
-            return List.of();
+        if (entries.isEmpty()) {
+            return new CursorPage<>(List.of(), next);
         }
 
-        return postsWithBirdLookup(sDAO.findAllById(allPostIds));
+        List<ObjectId> postIds = entries.stream().map(TimelineEntry::getPostId).toList();
+        List<Post> posts = queryEngine.find(
+            Criteria.where("_id").in(postIds),
+            Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id")),
+            0
+        );
+        return new CursorPage<>(withResolvedPostImages(posts), next);
     }
 
+    // Each pair is an $elemMatch on tagIndex, served by the tagIndex.k/tagIndex.v index
     public List<Post> getAllPostsByTags(Map<String,String> tags) {
-        Query query = new Query();
+        Criteria criteria = new Criteria();
+        List<Criteria> tagCriteria = new ArrayList<>();
 
         for (Map.Entry<String, String> entry : tags.entrySet()) {
             String key = entry.getKey();
             String value = entry.getValue();
-            query.addCriteria(Criteria.where("tags." + key).is(value));
+            tagCriteria.add(Criteria.where("tagIndex").elemMatch(Criteria.where("k").is(key).and("v").is(value)));
+        }
+        if (!tagCriteria.isEmpty()) {
+            criteria.andOperator(tagCriteria);
         }
 
-        return postsWithBirdLookup(mongoTemplate.find(query, Post.class));
-    }
-
-    public Post addComment(ObjectId postId, Comment comment) {
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-
-        post.getComments().add(comment);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        return withResolvedPostImages(queryEngine.find(criteria));
     }
 
-    public Post updateComment(ObjectId postId, ObjectId userId, Comment updatedComment) {
-
-        Post post = sDAO.findById(postId).orElseThrow(() -> new IllegalArgumentException("Post not found"));
-
-        boolean updated = false;
-
-        for (Comment c : post.getComments()) {
-            if (c.getUser().getUserId().equals(userId) && c.getTimestamp().equals(updatedComment.getTimestamp())) {
-                c.setTextBody(updatedComment.getTextBody());
-                updated = true;
-                break;
-            }
+    public LikeStatus likePost(ObjectId postId, ObjectId userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            likeWriteBuffer.submit(postId, userId, true);
+            return new LikeStatus(postId.toHexString(), null, true);
         }
 
-        if (!updated) {
-            throw new IllegalArgumentException("Comment not found or unauthorized");
-        }
+        // Only matches when the user has not liked yet, so the counter can never double count
+        Query notYetLiked = new Query(Criteria.where("_id").is(postId).and("likes").ne(userId));
+        notYetLiked.fields().include("likeCount");
+        Update update = new Update().addToSet("likes", userId).inc("likeCount", 1);
 
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        Post updated = mongoTemplate.findAndModify(notYetLiked, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+        int likeCount = updated != null ? updated.getLikeCount() : currentLikeCount(postId);
+        return new LikeStatus(postId.toHexString(), likeCount, true);
     }
 
-    public Post deleteComment(ObjectId postId, ObjectId userId, Date timestamp) {
-
-        Post post = sDAO.findById(postId).orElseThrow(() -> new IllegalArgumentException("Post not found"));
-
-        boolean removed = post.getComments().removeIf(
-            c -> c.getUser().getUserId().equals(userId)
-            && c.getTimestamp().equals(timestamp)
-        );
-
-        if (!removed) {
-            throw new IllegalArgumentException("Comment not found or unauthorized");
+    public LikeStatus unlikePost(ObjectId postId, ObjectId userId) {
+        if (likeWriteBuffer.isEnabled()) {
+            likeWriteBuffer.submit(postId, userId, false);
+            return new LikeStatus(postId.toHexString(), null, false);
         }
 
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
-    }
+        Query liked = new Query(Criteria.where("_id").is(postId).and("likes").is(userId));
+        liked.fields().include("likeCount");
+        Update update = new Update().pull("likes", userId).inc("likeCount", -1);
 
-    public Post likePost(ObjectId postId, ObjectId userId) {
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        if (!post.getLikes().contains(userId)) {
-            post.getLikes().add(userId);
-        }
-        
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        Post updated = mongoTemplate.findAndModify(liked, update, FindAndModifyOptions.options().returnNew(true), Post.class);
+        int likeCount = updated != null ? updated.getLikeCount() : currentLikeCount(postId);
+        return new LikeStatus(postId.toHexString(), likeCount, false);
     }
 
-    public Post unlikePost(ObjectId postId, ObjectId userId) {
-
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        post.getLikes().remove(userId);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+    private int currentLikeCount(ObjectId postId) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        query.fields().include("likeCount");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        if (post == null) {
+            throw new IllegalArgumentException("Post not found");
+        }
+        return post.getLikeCount();
     }
 
     public Post flagPost(ObjectId postId) {
-
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        post.setFlagged(true);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        return setPostField(postId, "flagged", true);
     }
 
     public Post unflagPost(ObjectId postId) {
-
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        post.setFlagged(false);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        return setPostField(postId, "flagged", false);
     }
 
     public Post markNeedsHelp(ObjectId postId) {
-
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        post.setHelp(true);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+        return setPostField(postId, "help", true);
     }
 
     public Post removeHelpFlag(ObjectId postId) {
+        return setPostField(postId, "help", false);
+    }
 
-        Post post = sDAO.findById(postId)
-            .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-        
-        post.setHelp(false);
-        Post saved = sDAO.save(post);
-        List<Post> enriched = postsWithBirdLookup(List.of(saved));
-        return enriched.isEmpty() ? saved : enriched.get(0);
+    // Single-field $set so moderation toggles don't rewrite likes/comments from a stale read
+    private Post setPostField(ObjectId postId, String field, Object value) {
+        Post updated = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(postId)),
+            new Update().set(field, value),
+            FindAndModifyOptions.options().returnNew(true),
+            Post.class
+        );
+        if (updated == null) {
+            throw new IllegalArgumentException("Post not found");
+        }
+        return withResolvedPostImage(updated);
     }
 
     public List<Map<String, String>> getUsersWhoLiked(ObjectId postId) {
@@ -0,0 +1,70 @@
+package com.example.post.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.time.Duration;
+
+/**
+ * Caches presigned GET urls by object key so list endpoints don't re-run SigV4
+ * for every image on every read. Entries expire well before the signature does,
+ * so a url handed out from the cache stays valid for at least SIGNATURE_DURATION - CACHE_TTL.
+ *
+ * Copied verbatim, apart from the package, into the post, user and bird
+ * services; scripts/check-shared-copies.sh keeps the copies in sync.
+ */
+@Component
+public class PresignedUrlCache {
+
+    static final Duration SIGNATURE_DURATION = Duration.ofHours(1);
+    static final Duration CACHE_TTL = Duration.ofMinutes(45);
+
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+    private final Cache<String, String> urls;
+
+    public PresignedUrlCache(
+            S3Presigner s3Presigner,
+            MeterRegistry meterRegistry,
+            @Value("${aws.s3.bucket:}") String bucketName,
+            @Value("${aws.s3.presign-cache.max-weight:16000000}") long maxWeight
+    ) {
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+        // Weighed by characters held, so long keys/urls count for more than short ones
+        this.urls = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, String url) -> key.length() + url.length())
+                .expireAfterWrite(CACHE_TTL)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, urls, "s3.presigned-urls");
+    }
+
+    public String presignedUrl(String objectKey) {
+        return urls.get(objectKey, this::sign);
+    }
+
+    private String sign(String objectKey) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey)
+                .build();
+
+        GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(SIGNATURE_DURATION)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        return s3Presigner.presignGetObject(getObjectPresignRequest)
+                .url()
+                .toExternalForm();
+    }
+}
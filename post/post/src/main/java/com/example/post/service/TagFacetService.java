@@ -0,0 +1,177 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import com.example.post.models.TagFacetValue;
+import com.example.post.models.TagPair;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Per key/value post counts for building tag filter UIs. Counters are
+ * adjusted by the post write path, so reading facets never scans posts.
+ * Free-form coordinates are not faceted.
+ *
+ * <p>A post's tags are counted once, by whichever of the rebuild and the
+ * create path first sets its tagsCounted flag; edits and deletes only adjust
+ * counters for flagged posts.
+ */
+@Service
+public class TagFacetService {
+
+    static final Set<String> UNFACETED_KEYS = Set.of("latitude", "longitude");
+
+    private static final String FACET_COLLECTION = "tag_facets";
+    private static final String STATE_COLLECTION = "tag_facets_state";
+    private static final int MAX_VALUES_PER_KEY = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClaimedRun rebuild;
+
+    public TagFacetService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuild = new ClaimedRun(mongoTemplate, STATE_COLLECTION);
+    }
+
+    // tags map -> [{k, v}], skipping null values
+    static List<TagPair> tagIndexOf(Map<String, String> tags) {
+        List<TagPair> pairs = new ArrayList<>();
+        if (tags != null) {
+            tags.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    pairs.add(new TagPair(key, value));
+                }
+            });
+        }
+        return pairs;
+    }
+
+    // Until a rebuild has started, new posts are left for it to count
+    public void recordCreated(ObjectId postId) {
+        try {
+            if (rebuild.isReady()) {
+                count(postId);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to update tag facets: " + e.getMessage());
+        }
+    }
+
+    // removed is the document the delete took out; an uncounted post was never added
+    public void recordDeleted(Post removed) {
+        if (Boolean.TRUE.equals(removed.getTagsCounted())) {
+            recordChange(removed.getTags(), null);
+        }
+    }
+
+    // previous is the pre-image of the edit that set tags
+    public void recordEdited(Post previous, Map<String, String> tags) {
+        if (Boolean.TRUE.equals(previous.getTagsCounted())) {
+            recordChange(previous.getTags(), tags);
+        }
+    }
+
+    // Best effort: a failed counter update must not fail the post write
+    private void recordChange(Map<String, String> before, Map<String, String> after) {
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FACET_COLLECTION);
+            int changes = 0;
+            changes += addIncrements(bulk, before, after, -1);
+            changes += addIncrements(bulk, after, before, 1);
+            if (changes > 0) {
+                bulk.execute();
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to update tag facets: " + e.getMessage());
+        }
+    }
+
+    // Top values per key, most used first; key narrows the result to one key. The match and
+    // first sort are read in key_count_value order, so only the grouping runs in memory.
+    public Map<String, List<TagFacetValue>> getFacets(String key, int limit) {
+        int perKey = Math.max(1, Math.min(limit, MAX_VALUES_PER_KEY));
+
+        Criteria criteria = Criteria.where("count").gt(0);
+        if (key != null && !key.isBlank()) {
+            criteria.and("_id.k").is(key);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.by(Sort.Order.asc("_id.k"), Sort.Order.desc("count"), Sort.Order.asc("_id.v"))),
+            context -> new Document("$group", new Document("_id", "$_id.k")
+                    .append("values", new Document("$push", new Document("value", "$_id.v").append("count", "$count")))),
+            context -> new Document("$project", new Document("values", new Document("$slice", List.of("$values", perKey)))),
+            Aggregation.sort(Sort.by(Sort.Order.asc("_id")))
+        );
+
+        Map<String, List<TagFacetValue>> facets = new LinkedHashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, FACET_COLLECTION, Document.class).getMappedResults()) {
+            List<TagFacetValue> values = new ArrayList<>();
+            for (Document value : row.getList("values", Document.class)) {
+                values.add(new TagFacetValue(value.getString("value"), ((Number) value.get("count")).longValue()));
+            }
+            facets.put(row.getString("_id"), values);
+        }
+        return facets;
+    }
+
+    /**
+     * Counts the tags of every post the write path has not, the first time
+     * the counters are used. One instance claims the run; each post is
+     * flagged and added on its own, so a post edited or deleted mid-run is
+     * either counted and then adjusted or never counted, and a run taken over
+     * after a crash loses at most the post it was writing.
+     */
+    public void rebuildIfNeeded() {
+        if (!rebuild.claim()) {
+            return;
+        }
+        rebuild.markReady();
+        long posts = rebuild.countUnflagged("tagsCounted", this::count);
+        rebuild.complete(new Update().set("posts", posts));
+        System.out.println("Tag facets rebuilt from " + posts + " posts");
+    }
+
+    // Whichever caller flips the flag adds the tags; everyone else sees null and leaves them
+    boolean count(ObjectId postId) {
+        Post post = rebuild.flag(postId, "tagsCounted", "tags");
+        if (post == null) {
+            return false;
+        }
+        recordChange(null, post.getTags());
+        return true;
+    }
+
+    // One $inc per pair in tags that is not also in other
+    private int addIncrements(BulkOperations bulk, Map<String, String> tags, Map<String, String> other, int delta) {
+        int changes = 0;
+        for (TagPair pair : tagIndexOf(tags)) {
+            if (UNFACETED_KEYS.contains(pair.getK())) {
+                continue;
+            }
+            if (other != null && Objects.equals(other.get(pair.getK()), pair.getV())) {
+                continue;
+            }
+            // Key order matters for the embedded _id: always k, then v
+            Document id = new Document("k", pair.getK()).append("v", pair.getV());
+            bulk.upsert(new Query(Criteria.where("_id").is(id)), new Update().inc("count", delta));
+            changes++;
+        }
+        return changes;
+    }
+}
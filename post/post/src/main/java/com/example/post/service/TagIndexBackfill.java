@@ -0,0 +1,47 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ObjectOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds tagIndex for posts written before it existed, then seeds the tag
+ * facet counters. Runs once per startup and is a no-op once every post has
+ * the field.
+ */
+@Component
+public class TagIndexBackfill {
+
+    private final MongoTemplate mongoTemplate;
+    private final TagFacetService tagFacetService;
+
+    public TagIndexBackfill(MongoTemplate mongoTemplate, TagFacetService tagFacetService) {
+        this.mongoTemplate = mongoTemplate;
+        this.tagFacetService = tagFacetService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTagIndex() {
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("tagIndex")
+                .toValue(ObjectOperators.valueOf("tags").toArray());
+
+        mongoTemplate.updateMulti(
+            new Query(Criteria.where("tagIndex").exists(false).and("tags").type(3)),
+            update,
+            Post.class
+        );
+
+        try {
+            tagFacetService.rebuildIfNeeded();
+        } catch (Exception e) {
+            System.err.println("Tag facet rebuild failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.post.service;
+
+import com.example.post.models.FeedCursor;
+import com.example.post.models.Post;
+import com.example.post.models.Timeline;
+import com.example.post.models.TimelineEntry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fan-out-on-write friend feeds. New posts are pushed into the capped timeline
+ * of every user who follows the author. Authors with more followers than the
+ * fan-out limit are recorded instead and their posts are merged in at read time.
+ */
+@Service
+public class TimelineService {
+
+    private static final String FAN_OUT_ON_READ_COLLECTION = "timeline_fan_out_on_read";
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getTimestamp, Comparator.reverseOrder())
+            .thenComparing(TimelineEntry::getPostId, Comparator.reverseOrder());
+
+    private final MongoTemplate mongoTemplate;
+    private final UserService userService;
+    private final int maxEntries;
+    private final int fanOutLimit;
+
+    public TimelineService(
+            MongoTemplate mongoTemplate,
+            UserService userService,
+            @Value("${post.timeline.max-entries:500}") int maxEntries,
+            @Value("${post.timeline.fan-out-limit:1000}") int fanOutLimit
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.userService = userService;
+        this.maxEntries = maxEntries;
+        this.fanOutLimit = fanOutLimit;
+    }
+
+    public void fanOut(Post post) {
+        String authorId = post.getUser().getUserId();
+        try {
+            List<String> followerIds = userService.getFollowerIds(authorId);
+            if (followerIds == null || followerIds.isEmpty()) {
+                return;
+            }
+            if (followerIds.size() > fanOutLimit) {
+                mongoTemplate.upsert(
+                    new Query(Criteria.where("_id").is(authorId)),
+                    new Update().setOnInsert("since", new Date()),
+                    FAN_OUT_ON_READ_COLLECTION
+                );
+                return;
+            }
+
+            TimelineEntry entry = new TimelineEntry(post.getId(), authorId, post.getTimestamp());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+            for (String followerId : followerIds) {
+                Update update = new Update();
+                update.push("entries").sort(Sort.by(Sort.Direction.DESC, "timestamp")).slice(maxEntries).each(entry);
+                bulk.upsert(new Query(Criteria.where("_id").is(followerId)), update);
+            }
+            bulk.execute();
+        } catch (Exception e) {
+            // The post is already saved but stays out of the followers' existing timelines;
+            // only timelines built after this, for users who had none, pick it up
+            System.err.println("Failed to fan out post " + post.getId() + ": " + e.getMessage());
+        }
+    }
+
+    public void removePost(ObjectId postId) {
+        mongoTemplate.updateMulti(
+            new Query(Criteria.where("entries.postId").is(postId)),
+            new Update().pull("entries", Query.query(Criteria.where("postId").is(postId))),
+            Timeline.class
+        );
+    }
+
+    // Up to limit entries older than cursor (or the newest when cursor is null), newest first
+    public List<TimelineEntry> readPage(String userId, FeedCursor cursor, int limit) {
+        Timeline timeline = mongoTemplate.findById(userId, Timeline.class);
+        List<String> friendIds = null;
+        if (timeline == null) {
+            friendIds = friendIdsOf(userId);
+            timeline = rebuild(userId, friendIds);
+        }
+
+        List<TimelineEntry> candidates = new ArrayList<>();
+        for (TimelineEntry entry : timeline.getEntries()) {
+            if (isBefore(entry, cursor)) {
+                candidates.add(entry);
+                if (candidates.size() == limit) {
+                    break;
+                }
+            }
+        }
+
+        // Skips the friend lookup entirely while no author is over the fan-out limit
+        if (mongoTemplate.exists(new Query(), FAN_OUT_ON_READ_COLLECTION)) {
+            if (friendIds == null) {
+                friendIds = friendIdsOf(userId);
+            }
+            List<String> followed = fanOutOnReadAuthors(friendIds);
+            if (!followed.isEmpty()) {
+                candidates.addAll(postsByAuthors(followed, cursor, limit));
+            }
+        }
+
+        // Merge both sources; an author may have been fanned out before crossing the limit
+        Map<ObjectId, TimelineEntry> merged = new LinkedHashMap<>();
+        candidates.stream()
+                .sorted(NEWEST_FIRST)
+                .forEach(entry -> merged.putIfAbsent(entry.getPostId(), entry));
+        return merged.values().stream().limit(limit).toList();
+    }
+
+    private Timeline rebuild(String userId, List<String> friendIds) {
+        Timeline timeline = new Timeline();
+        timeline.setId(userId);
+        timeline.setEntries(friendIds.isEmpty() ? new ArrayList<>() : postsByAuthors(friendIds, null, maxEntries));
+        mongoTemplate.save(timeline);
+        return timeline;
+    }
+
+    private List<TimelineEntry> postsByAuthors(List<String> authorIds, FeedCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("user.userId").in(authorIds);
+        if (cursor != null) {
+            criteria.orOperator(
+                Criteria.where("timestamp").lt(cursor.getTimestamp()),
+                Criteria.where("timestamp").is(cursor.getTimestamp()).and("_id").lt(cursor.getId())
+            );
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id")))
+                .limit(limit);
+        query.fields().include("user.userId", "timestamp");
+
+        return mongoTemplate.find(query, Post.class).stream()
+                .map(post -> new TimelineEntry(post.getId(), post.getUser().getUserId(), post.getTimestamp()))
+                .toList();
+    }
+
+    private List<String> friendIdsOf(String userId) {
+        List<String> friendIds = userService.getFriendIds(userId);
+        return friendIds == null ? List.of() : friendIds;
+    }
+
+    // The friends whose posts are merged in at read time, looked up by _id
+    private List<String> fanOutOnReadAuthors(List<String> friendIds) {
+        if (friendIds.isEmpty()) {
+            return List.of();
+        }
+        Query markers = new Query(Criteria.where("_id").in(friendIds));
+        markers.fields().include("_id");
+        List<String> authorIds = new ArrayList<>();
+        for (Document marker : mongoTemplate.find(markers, Document.class, FAN_OUT_ON_READ_COLLECTION)) {
+            authorIds.add(marker.get("_id").toString());
+        }
+        return authorIds;
+    }
+
+    private boolean isBefore(TimelineEntry entry, FeedCursor cursor) {
+        if (cursor == null) {
+            return true;
+        }
+        int byTime = entry.getTimestamp().compareTo(cursor.getTimestamp());
+        return byTime < 0 || (byTime == 0 && entry.getPostId().compareTo(cursor.getId()) < 0);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.post.service;
 
 
+import com.example.post.models.Post;
+import com.example.post.models.SightingEvent;
 import com.example.post.models.User;
 import com.example.post.repository.UserFeignClient;
 import org.bson.types.ObjectId;
@@ -28,8 +30,27 @@ public class UserService {
         return ufClient.getAllById(ids);
     }
 
+    // Ids of the users in this user's friends list
+    public List<String> getFriendIds(String userId) {
+        return ufClient.getFriendIds(userId);
+    }
+
+    // Ids of users who have this user in their friends list
+    public List<String> getFollowerIds(String userId) {
+        return ufClient.getFollowerIds(userId);
+    }
+
     public void addPostToUser(String userId, String postId){
         ufClient.addPostToUser(userId,postId);
     }
+
+    // Best effort; the user service's nightly rebuild repairs any missed event
+    public void recordSighting(String userId, Post post, int delta) {
+        try {
+            ufClient.recordSighting(userId, new SightingEvent(post.getBird(), post.getTimestamp(), delta));
+        } catch (Exception e) {
+            System.err.println("Failed to update stats for user " + userId + ": " + e.getMessage());
+        }
+    }
 }
 
@@ -0,0 +1,122 @@
+package com.example.post.repository;
+
+import com.example.post.models.Post;
+import com.example.post.models.PostUser;
+import com.example.post.support.MongoTestSupport;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression benchmark for the single-query read path. The baseline is the
+ * pre-change read: fetch the page, then re-fetch the same ids through an
+ * $in + birds $lookup aggregation. The engine must return the same page and
+ * its median latency must stay under the baseline's.
+ */
+@Tag("benchmark")
+class PostQueryEngineBenchmarkTest {
+
+    private static final int POSTS = 5000;
+    private static final int AUTHORS = 50;
+    private static final int PAGE = 50;
+    private static final int WARMUP = 50;
+    private static final int RUNS = 200;
+    // Engine median must be at most this fraction of the baseline median
+    private static final double MAX_RATIO = 1.0;
+
+    private MongoTemplate mongoTemplate;
+    private PostQueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, Post.class);
+        engine = new PostQueryEngine(mongoTemplate);
+
+        List<Document> birds = new ArrayList<>();
+        List<ObjectId> birdIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ObjectId id = new ObjectId();
+            birdIds.add(id);
+            birds.add(new Document("_id", id).append("commonName", "Bird " + i));
+        }
+        mongoTemplate.getCollection("birds").insertMany(birds);
+
+        List<Post> posts = new ArrayList<>(POSTS);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < POSTS; i++) {
+            Post post = new Post("Sighting " + i, birdIds.get(i % birdIds.size()), "Seen at the lake");
+            post.setUser(new PostUser("author" + (i % AUTHORS), "author" + (i % AUTHORS)));
+            post.setTimestamp(new Date(now - i * 60_000L));
+            posts.add(post);
+        }
+        mongoTemplate.insertAll(posts);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void singleQueryReadIsNoSlowerThanTwoRoundTripBaseline() {
+        Criteria byAuthor = Criteria.where("user.userId").is("author7");
+        Sort newestFirst = Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("_id"));
+
+        List<ObjectId> expected = baseline(byAuthor, newestFirst).stream().map(Post::getId).toList();
+        List<ObjectId> actual = engine.find(byAuthor, newestFirst, PAGE).stream().map(Post::getId).toList();
+        assertEquals(expected, actual);
+
+        long baselineMedian = medianNanos(() -> baseline(byAuthor, newestFirst));
+        long engineMedian = medianNanos(() -> engine.find(byAuthor, newestFirst, PAGE));
+
+        System.out.printf("posts by author, page %d: baseline median %.3f ms, engine median %.3f ms%n",
+                PAGE, baselineMedian / 1e6, engineMedian / 1e6);
+        assertTrue(engineMedian <= baselineMedian * MAX_RATIO,
+                "engine median " + engineMedian + " ns exceeds baseline median " + baselineMedian + " ns");
+    }
+
+    // The read path before the change: page query, then a second $in + $lookup pass over the same ids
+    private List<Post> baseline(Criteria criteria, Sort sort) {
+        Query query = new Query(criteria).with(sort).limit(PAGE);
+        query.fields().include("_id");
+        List<ObjectId> ids = mongoTemplate.find(query, Post.class).stream().map(Post::getId).toList();
+        return mongoTemplate.aggregate(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").in(ids)),
+                Aggregation.sort(sort),
+                Aggregation.lookup("birds", "bird", "_id", "birdDetails"),
+                Aggregation.unwind("$birdDetails", true)
+        ), "posts", Post.class).getMappedResults();
+    }
+
+    private static long medianNanos(Supplier<?> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            read.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.post.service;
+
+import com.example.post.support.MongoTestSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimedRunTest {
+
+    private static final String STATE = "test_run_state";
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void onlyOneInstanceClaimsTheRun() {
+        ClaimedRun run = new ClaimedRun(mongoTemplate, STATE);
+        ClaimedRun other = new ClaimedRun(mongoTemplate, STATE);
+
+        assertTrue(run.claim());
+        assertFalse(other.claim());
+
+        // A claim left by a crashed run is taken over once stale, a finished one never is
+        Query state = new Query(Criteria.where("_id").is(ClaimedRun.ID));
+        mongoTemplate.updateFirst(state, new Update().set("startedAt", new Date(0)), STATE);
+        assertTrue(other.claim());
+        assertFalse(run.claim());
+
+        other.complete(new Update());
+        mongoTemplate.updateFirst(state, new Update().set("startedAt", new Date(0)), STATE);
+        assertFalse(run.claim());
+    }
+
+    @Test
+    void readinessIsSeenByOtherInstances() {
+        ClaimedRun run = new ClaimedRun(mongoTemplate, STATE);
+        ClaimedRun other = new ClaimedRun(mongoTemplate, STATE);
+        run.claim();
+
+        assertFalse(other.isReady());
+        run.markReady();
+        assertTrue(other.isReady());
+    }
+}
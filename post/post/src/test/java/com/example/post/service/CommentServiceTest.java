@@ -0,0 +1,163 @@
+package com.example.post.service;
+
+import com.example.post.models.Comment;
+import com.example.post.models.CommentBucket;
+import com.example.post.models.CursorPage;
+import com.example.post.models.Post;
+import com.example.post.models.PostUser;
+import com.example.post.support.MongoTestSupport;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CommentServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private CommentService commentService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, Post.class);
+        MongoTestSupport.createIndexes(mongoTemplate, CommentBucket.class);
+        commentService = new CommentService(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void concurrentAddsFillOneBucketAtATime() throws Exception {
+        ObjectId postId = insertPost().getId();
+        int comments = CommentService.BUCKET_SIZE * 4 + 7;
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int i = 0; i < comments; i++) {
+                int n = i;
+                work.add(pool.submit(() -> commentService.addComment(postId, comment("c" + n))));
+            }
+            for (Future<?> future : work) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<CommentBucket> buckets = mongoTemplate.find(
+                new Query(Criteria.where("postId").is(postId)).with(Sort.by("seq")), CommentBucket.class);
+        assertEquals(5, buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            assertEquals(i + 1, buckets.get(i).getSeq());
+            int expected = i < 4 ? CommentService.BUCKET_SIZE : 7;
+            assertEquals(expected, buckets.get(i).getCount());
+            assertEquals(expected, buckets.get(i).getComments().size());
+        }
+        assertEquals(comments, mongoTemplate.findById(postId, Post.class).getCommentCount());
+    }
+
+    @Test
+    void pagesReturnCommentsInInsertionOrder() {
+        ObjectId postId = insertPost().getId();
+        int comments = CommentService.BUCKET_SIZE * 2 + 3;
+        for (int i = 0; i < comments; i++) {
+            commentService.addComment(postId, comment("c" + i));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Comment> page = commentService.getComments(postId, cursor);
+            page.getItems().forEach(comment -> seen.add(comment.getTextBody()));
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertEquals(comments, seen.size());
+        for (int i = 0; i < comments; i++) {
+            assertEquals("c" + i, seen.get(i));
+        }
+    }
+
+    @Test
+    void deletingAPreviewedCommentRefillsThePreview() {
+        ObjectId postId = insertPost().getId();
+        List<Comment> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(commentService.addComment(postId, comment("c" + i)));
+        }
+
+        Comment second = added.get(1);
+        commentService.deleteComment(postId, new ObjectId(second.getUser().getUserId()), second.getTimestamp());
+
+        Post post = mongoTemplate.findById(postId, Post.class);
+        assertEquals(4, post.getCommentCount());
+        assertEquals(List.of("c0", "c2", "c3"), post.getCommentPreview().stream().map(Comment::getTextBody).toList());
+    }
+
+    @Test
+    void migrationKeepsLegacyCommentsAheadOfLiveOnes() {
+        ObjectId postId = insertPost().getId();
+        // Embedded array from the original layout
+        List<Document> embedded = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            embedded.add(new Document("user", new Document("userId", new ObjectId().toHexString()))
+                    .append("textBody", "embedded" + i)
+                    .append("timestamp", new Date()));
+        }
+        mongoTemplate.getCollection("posts").updateOne(new Document("_id", postId),
+                new Document("$set", new Document("comments", embedded)));
+        // Traffic that arrived after the deploy, before the migration ran
+        commentService.addComment(postId, comment("live"));
+
+        CommentBucketMigration migration = new CommentBucketMigration(mongoTemplate);
+        migration.migrate();
+        // Rerunning the move must not duplicate or recount anything
+        migration.moveEmbeddedComments();
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Comment> page = commentService.getComments(postId, cursor);
+            page.getItems().forEach(comment -> seen.add(comment.getTextBody()));
+            cursor = page.getNext();
+        } while (cursor != null);
+        assertEquals(List.of("embedded0", "embedded1", "live"), seen);
+
+        Post post = mongoTemplate.findById(postId, Post.class);
+        assertEquals(3, post.getCommentCount());
+        assertEquals(List.of("embedded0", "embedded1", "live"),
+                post.getCommentPreview().stream().map(Comment::getTextBody).toList());
+        assertNull(mongoTemplate.getCollection("posts").find(new Document("_id", postId)).first().get("comments"));
+    }
+
+    private Post insertPost() {
+        Post post = new Post("Heron", new ObjectId(), "By the river");
+        post.setUser(new PostUser(new ObjectId().toHexString(), "birder"));
+        return mongoTemplate.insert(post);
+    }
+
+    private static Comment comment(String text) {
+        Comment comment = new Comment(new PostUser(new ObjectId().toHexString(), "birder"), text);
+        comment.setTimestamp(new Date());
+        return comment;
+    }
+}
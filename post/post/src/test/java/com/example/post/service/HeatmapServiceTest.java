@@ -0,0 +1,104 @@
+package com.example.post.service;
+
+import com.example.post.models.HeatCell;
+import com.example.post.models.HeatmapTile;
+import com.example.post.models.Post;
+import com.example.post.support.MongoTestSupport;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeatmapServiceTest {
+
+    private static final String WORLD = "-180,-90,180,90";
+
+    private final ObjectId bird = new ObjectId();
+
+    private MongoTemplate mongoTemplate;
+    private HeatmapService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, HeatCell.class);
+        service = new HeatmapService(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void aPostDeletedBeforeTheRebuildReachesItIsNeverCounted() {
+        Post counted = insertPost(LocalDate.of(2026, 3, 10));
+        Post skipped = insertPost(LocalDate.of(2026, 3, 11));
+
+        // Another instance has started the rebuild and counted the first post, then died
+        mongoTemplate.insert(new Document("_id", ClaimedRun.ID)
+                .append("startedAt", new Date(0))
+                .append("readyAt", new Date(0)), "sighting_heat_state");
+        assertTrue(service.count(counted.getId()));
+
+        service.recordDeleted(delete(skipped));
+        service.recordDeleted(delete(counted));
+        Post created = insertPost(LocalDate.of(2026, 3, 12));
+        service.recordCreated(created.getId());
+
+        service.rebuildIfNeeded();
+
+        assertEquals(1, total(null, null));
+        assertEquals(1, total(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31)));
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("count").lt(0)), HeatCell.class));
+    }
+
+    @Test
+    void rangesAddUpFromMonthAndDayRows() {
+        service.rebuildIfNeeded();
+        for (LocalDate day : new LocalDate[] {
+                LocalDate.of(2026, 1, 15), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 20),
+                LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 31)}) {
+            service.recordCreated(insertPost(day).getId());
+        }
+
+        assertEquals(5, total(null, null));
+        assertEquals(4, total(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 3, 3)));
+        assertEquals(2, total(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 28)));
+        assertEquals(0, total(LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 19)));
+        assertEquals(2, total(null, LocalDate.of(2026, 2, 1)));
+        assertEquals(2, total(LocalDate.of(2026, 3, 1), null));
+        assertEquals(3, total(LocalDate.of(2026, 2, 20), null));
+
+        // One all-time row per cell and bird: an open range never sums days
+        long allTime = mongoTemplate.count(new Query(Criteria.where("span").is(HeatmapService.SPAN_ALL)), HeatCell.class);
+        assertEquals(HeatmapService.CELL_PRECISION * 2, allTime);
+    }
+
+    private Post insertPost(LocalDate day) {
+        Post post = new Post("Sighting", bird, "");
+        post.setLocation(new GeoJsonPoint(-0.12, 51.5));
+        post.setTimestamp(Date.from(day.atTime(12, 0).toInstant(ZoneOffset.UTC)));
+        return mongoTemplate.insert(post);
+    }
+
+    private Post delete(Post post) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(post.getId())), Post.class);
+    }
+
+    private long total(LocalDate from, LocalDate to) {
+        return service.getHeatmap(WORLD, 0, null, from, to).getTiles().stream().mapToLong(HeatmapTile::getCount).sum();
+    }
+}
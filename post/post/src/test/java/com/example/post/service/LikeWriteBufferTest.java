@@ -0,0 +1,149 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeWriteBufferTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void failedFlushKeepsIntentsForTheNextFlush() {
+        BulkOperations failing = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(failing.execute()).thenThrow(new IllegalStateException("mongo down"));
+        BulkOperations working = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Post.class)))
+                .thenReturn(failing, working);
+
+        LikeWriteBuffer buffer = buffer(100);
+        ObjectId post = new ObjectId();
+        buffer.submit(post, new ObjectId(), true);
+        buffer.submit(post, new ObjectId(), false);
+
+        assertThrows(IllegalStateException.class, buffer::flush);
+        assertEquals(2.0, depth());
+
+        buffer.flush();
+        verify(working, times(2)).updateOne(any(Query.class), any(Update.class));
+        assertEquals(0.0, depth());
+    }
+
+    @Test
+    void theLatestIntentPerUserWins() {
+        BulkOperations bulk = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Post.class))).thenReturn(bulk);
+
+        // Already liked: the duplicate like would be a no-op, so it must not cancel the unlike
+        LikeWriteBuffer buffer = buffer(100);
+        ObjectId post = new ObjectId();
+        ObjectId user = new ObjectId();
+        buffer.submit(post, user, true);
+        buffer.submit(post, user, false);
+        assertEquals(1.0, depth());
+
+        buffer.flush();
+        assertEquals(List.of(false), likesWritten(bulk));
+    }
+
+    @Test
+    void intentsSubmittedDuringAFailedFlushWinOverTheRetriedOnes() {
+        ObjectId post = new ObjectId();
+        ObjectId reversed = new ObjectId();
+        ObjectId other = new ObjectId();
+        LikeWriteBuffer[] holder = new LikeWriteBuffer[1];
+
+        BulkOperations failing = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(failing.execute()).thenAnswer(invocation -> {
+            // Arrive while the batch is in flight: one reverses a buffered like, one is new
+            holder[0].submit(post, reversed, false);
+            holder[0].submit(post, other, true);
+            throw new IllegalStateException("mongo down");
+        });
+        BulkOperations working = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Post.class)))
+                .thenReturn(failing, working);
+
+        holder[0] = buffer(100);
+        holder[0].submit(post, reversed, true);
+
+        assertThrows(IllegalStateException.class, holder[0]::flush);
+        assertEquals(2.0, depth());
+
+        // The like may have landed before the failure; the newer unlike must still be written
+        holder[0].flush();
+        assertEquals(List.of(false, true), likesWritten(working).stream().sorted().toList());
+        assertEquals(0.0, depth());
+    }
+
+    @Test
+    void pendingIntentsNeverExceedTheCap() throws Exception {
+        int cap = 10;
+        AtomicInteger maxSeen = new AtomicInteger();
+        BulkOperations bulk = mock(BulkOperations.class, Answers.RETURNS_SELF);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(Post.class))).thenReturn(bulk);
+
+        LikeWriteBuffer buffer = buffer(cap);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                ObjectId post = new ObjectId();
+                work.add(pool.submit(() -> {
+                    buffer.submit(post, new ObjectId(), true);
+                    maxSeen.accumulateAndGet((int) depth(), Math::max);
+                }));
+            }
+            for (Future<?> future : work) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(maxSeen.get() <= cap, "depth reached " + maxSeen.get());
+    }
+
+    private LikeWriteBuffer buffer(int maxPending) {
+        // Disabled so no scheduler runs; flushes are driven by the test
+        return new LikeWriteBuffer(mongoTemplate, registry, false, 200, maxPending);
+    }
+
+    // true for each $addToSet written, false for each $pull
+    private List<Boolean> likesWritten(BulkOperations bulk) {
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, atLeast(0)).updateOne(any(Query.class), updates.capture());
+        return updates.getAllValues().stream()
+                .map(update -> update.getUpdateObject().containsKey("$addToSet"))
+                .toList();
+    }
+
+    private double depth() {
+        return registry.get("post.likes.buffer.depth").gauge().value();
+    }
+}
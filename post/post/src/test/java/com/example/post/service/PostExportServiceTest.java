@@ -0,0 +1,83 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import com.example.post.models.PostUser;
+import com.example.post.support.MongoTestSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostExportServiceTest {
+
+    private final ObjectId group = new ObjectId();
+
+    private MongoTemplate mongoTemplate;
+    private PostExportService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, Post.class);
+        service = new PostExportService(mongoTemplate, new ObjectMapper(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void groupExportIsWrittenInIdOrder() throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(insertPost(group, "a").getId().toHexString());
+            insertPost(new ObjectId(), "a");
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(5, service.export(group, null, null, null, out));
+
+        List<String> ids = out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> Document.parse(line).getString("id"))
+                .toList();
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void groupAndAuthorExportsDoNotSort() {
+        assertIndexOrder(new Document("group", group), "group_id");
+        assertIndexOrder(new Document("user.userId", "a"), "author_id");
+    }
+
+    private void assertIndexOrder(Document filter, String index) {
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain",
+                new Document("find", "posts")
+                        .append("filter", filter)
+                        .append("sort", new Document("_id", 1))));
+        String plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertTrue(plan.contains(index), plan);
+        assertFalse(plan.contains("\"SORT\""), plan);
+    }
+
+    private Post insertPost(ObjectId group, String userId) {
+        Post post = new Post("Sighting", new ObjectId(), "");
+        post.setGroup(group);
+        post.setUser(new PostUser(userId, userId));
+        return mongoTemplate.insert(post);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import com.example.post.support.MongoTestSupport;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostIndexCleanupTest {
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        mongoTemplate.getCollection("posts").createIndex(
+                new Document("user.userId", 1).append("timestamp", -1),
+                new IndexOptions().name("author_timestamp"));
+        MongoTestSupport.createIndexes(mongoTemplate, Post.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void retiredAuthorIndexIsDroppedAndTheReplacementKept() {
+        new PostIndexCleanup(mongoTemplate).dropRetiredIndexes();
+
+        List<String> names = mongoTemplate.indexOps(Post.class).getIndexInfo().stream().map(IndexInfo::getName).toList();
+        assertFalse(names.contains("author_timestamp"));
+        assertTrue(names.contains("author_timestamp_id"));
+    }
+
+    @Test
+    void authorPagesAreReadInIndexOrder() {
+        new PostIndexCleanup(mongoTemplate).dropRetiredIndexes();
+
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain",
+                new Document("find", "posts")
+                        .append("filter", new Document("user.userId", "a"))
+                        .append("sort", new Document("timestamp", -1).append("_id", -1))
+                        .append("limit", 20)));
+        String plan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+
+        assertTrue(plan.contains("author_timestamp_id"), plan);
+        assertFalse(plan.contains("\"SORT\""), plan);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.post.service;
+
+import com.example.post.models.Comment;
+import com.example.post.models.CommentBucket;
+import com.example.post.models.Post;
+import com.example.post.models.PostUser;
+import com.example.post.repository.PostDAO;
+import com.example.post.repository.PostQueryEngine;
+import com.example.post.support.MongoTestSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class PostUpdateRaceTest {
+
+    private MongoTemplate mongoTemplate;
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, Post.class);
+        postService = new PostService(
+                mock(PostDAO.class),
+                new PostQueryEngine(mongoTemplate),
+                mock(UserService.class),
+                new LikeWriteBuffer(mongoTemplate, new SimpleMeterRegistry(), false, 200, 10_000),
+                mock(CommentService.class),
+                mock(TimelineService.class),
+                mock(HeatmapService.class),
+                mock(TagFacetService.class),
+                mongoTemplate,
+                mock(S3Client.class),
+                "",
+                "images"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void likesInAnEditBodyAreIgnored() {
+        Post post = insertPost();
+        ObjectId liker = new ObjectId();
+        postService.likePost(post.getId(), liker);
+
+        Post edit = new Post();
+        edit.setHeader("Edited");
+        edit.setLikes(List.of(new ObjectId(), new ObjectId()));
+        Post updated = postService.updatePost(post.getId(), edit, null);
+
+        assertEquals("Edited", updated.getHeader());
+        assertEquals(List.of(liker), updated.getLikes());
+        assertEquals(1, updated.getLikeCount());
+    }
+
+    @Test
+    void concurrentEditsDoNotUndoLikes() throws Exception {
+        Post post = insertPost();
+        int likers = 64;
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int i = 0; i < likers; i++) {
+                ObjectId liker = new ObjectId();
+                int edit = i;
+                work.add(pool.submit(() -> postService.likePost(post.getId(), liker)));
+                work.add(pool.submit(() -> {
+                    Post body = new Post();
+                    body.setHeader("Edit " + edit);
+                    postService.updatePost(post.getId(), body, null);
+                }));
+            }
+            for (Future<?> future : work) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(likers, stored.getLikes().size());
+        assertEquals(likers, stored.getLikeCount());
+    }
+
+    @Test
+    void concurrentEditsDoNotLoseCommentCounters() throws Exception {
+        MongoTestSupport.createIndexes(mongoTemplate, CommentBucket.class);
+        CommentService commentService = new CommentService(mongoTemplate);
+        Post post = insertPost();
+        int comments = 64;
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int i = 0; i < comments; i++) {
+                int n = i;
+                work.add(pool.submit(() -> commentService.addComment(post.getId(),
+                        new Comment(new PostUser(new ObjectId().toHexString(), "birder"), "c" + n))));
+                work.add(pool.submit(() -> {
+                    Post body = new Post();
+                    body.setTextBody("Edit " + n);
+                    postService.updatePost(post.getId(), body, null);
+                }));
+            }
+            for (Future<?> future : work) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals(comments, stored.getCommentCount());
+        assertEquals(CommentService.PREVIEW_SIZE, stored.getCommentPreview().size());
+    }
+
+    @Test
+    void editingAMissingPostFails() {
+        Post body = new Post();
+        body.setHeader("Edited");
+        assertThrows(RuntimeException.class, () -> postService.updatePost(new ObjectId(), body, null));
+    }
+
+    private Post insertPost() {
+        Post post = new Post("Heron", new ObjectId(), "By the river");
+        post.setUser(new PostUser(new ObjectId().toHexString(), "birder"));
+        return mongoTemplate.insert(post);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.post.service;
+
+import com.example.post.models.Post;
+import com.example.post.models.TagFacet;
+import com.example.post.models.TagFacetValue;
+import com.example.post.support.MongoTestSupport;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagFacetServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private TagFacetService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, TagFacet.class);
+        service = new TagFacetService(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void editsAndDeletesDuringTheRebuildDoNotDrift() {
+        Post counted = insertPost(Map.of("habitat", "wetland"));
+        Post edited = insertPost(Map.of("habitat", "wetland"));
+        Post deleted = insertPost(Map.of("habitat", "forest"));
+
+        // Another instance has started the rebuild and counted the first post, then died
+        mongoTemplate.insert(new Document("_id", ClaimedRun.ID)
+                .append("startedAt", new Date(0))
+                .append("readyAt", new Date(0)), "tag_facets_state");
+        assertTrue(service.count(counted.getId()));
+
+        service.recordEdited(edit(counted, Map.of("habitat", "forest")), Map.of("habitat", "forest"));
+        service.recordEdited(edit(edited, Map.of("habitat", "meadow")), Map.of("habitat", "meadow"));
+        service.recordDeleted(mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(deleted.getId())), Post.class));
+        Post created = insertPost(Map.of("habitat", "meadow"));
+        service.recordCreated(created.getId());
+
+        service.rebuildIfNeeded();
+
+        assertEquals(List.of("meadow:2", "forest:1"), values("habitat"));
+    }
+
+    @Test
+    void facetsAreReadInIndexOrder() {
+        service.rebuildIfNeeded();
+        service.recordCreated(insertPost(Map.of("habitat", "wetland", "weather", "rain")).getId());
+        service.recordCreated(insertPost(Map.of("habitat", "forest")).getId());
+        service.recordCreated(insertPost(Map.of("habitat", "forest")).getId());
+
+        assertEquals(List.of("forest:2", "wetland:1"), values("habitat"));
+
+        Document explain = mongoTemplate.getDb().runCommand(new Document("explain", new Document("aggregate", "tag_facets")
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("count", new Document("$gt", 0))),
+                        new Document("$sort", new Document("_id.k", 1).append("count", -1).append("_id.v", 1))))
+                .append("cursor", new Document())));
+        String plan = explain.toJson();
+
+        assertTrue(plan.contains("key_count_value"), plan);
+        assertFalse(plan.contains("\"SORT\"") || plan.contains("\"$sort\""), plan);
+    }
+
+    private Post insertPost(Map<String, String> tags) {
+        Post post = new Post("Sighting", new ObjectId(), "");
+        post.setTags(tags);
+        return mongoTemplate.insert(post);
+    }
+
+    // Same pre-image read PostService.updatePost uses
+    private Post edit(Post post, Map<String, String> tags) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(post.getId())),
+                new Update().set("tags", tags),
+                FindAndModifyOptions.options().returnNew(false),
+                Post.class);
+    }
+
+    private List<String> values(String key) {
+        Map<String, List<TagFacetValue>> facets = service.getFacets(key, 10);
+        return facets.get(key).stream().map(value -> value.getValue() + ":" + value.getCount()).toList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.post.support;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwaway Mongo database for integration tests. Points at MONGODB_TEST_URI
+ * (default localhost:27017); tests are skipped, not failed, when no server
+ * answers. Each call gets its own database, dropped by {@link #drop}.
+ */
+public final class MongoTestSupport {
+
+    private static final String URI = System.getenv().getOrDefault("MONGODB_TEST_URI", "mongodb://localhost:27017");
+
+    private MongoTestSupport() {}
+
+    public static MongoTemplate template() {
+        MongoClient client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(URI))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(1, TimeUnit.SECONDS))
+                .build());
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+        } catch (RuntimeException e) {
+            client.close();
+            Assumptions.abort("No MongoDB at " + URI + ": " + e.getMessage());
+        }
+        return new MongoTemplate(client, "post_test_" + UUID.randomUUID().toString().replace("-", ""));
+    }
+
+    // Creates the indexes declared on the entity, as auto-index-creation would
+    public static void createIndexes(MongoTemplate mongoTemplate, Class<?> type) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        List<Document> indexes = new ArrayList<>();
+        for (IndexDefinition definition : resolver.resolveIndexFor(type)) {
+            Document index = new Document("key", definition.getIndexKeys());
+            index.putAll(definition.getIndexOptions());
+            index.putIfAbsent("name", String.join("_", definition.getIndexKeys().keySet()));
+            indexes.add(index);
+        }
+        if (!indexes.isEmpty()) {
+            mongoTemplate.getDb().runCommand(new Document("createIndexes", mongoTemplate.getCollectionName(type))
+                    .append("indexes", indexes));
+        }
+    }
+
+    public static void drop(MongoTemplate mongoTemplate) {
+        if (mongoTemplate != null) {
+            mongoTemplate.getDb().drop();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# The post, user and bird services build separately, so a few classes are
+# copied between them. Fails when a copy drifts from the post service's,
+# ignoring the package/import lines and the owned-prefix property.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+normalize() {
+    sed -E \
+        -e '/^package /d' \
+        -e '/^import com\.(example|user)\./d' \
+        -e 's/@Value\("\$\{aws\.s3\.[a-z]+-prefix:[^}]*\}"\)/@Value(OWNED_PREFIX)/' \
+        "$1"
+}
+
+status=0
+for class in service/PresignedUrlCache controller/MediaController; do
+    reference="post/post/src/main/java/com/example/post/$class.java"
+    for copy in "user/src/main/java/com/user/user/$class.java" "bird/src/main/java/com/example/bird/$class.java"; do
+        if ! diff -u <(normalize "$reference") <(normalize "$copy") >/dev/null; then
+            echo "$copy has drifted from $reference:"
+            diff -u <(normalize "$reference") <(normalize "$copy") || true
+            status=1
+        fi
+    done
+done
+exit $status
@@ -4,10 +4,17 @@ import com.user.user.models.Bird;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import java.util.List;
 
 @FeignClient(name = "bird")
 public interface BirdClient {
     
     @GetMapping("/birds/{id}")
     Bird getBirdById(@PathVariable("id") String id);
+
+    // At most 500 ids per call; unknown ids are left out of the result
+    @PostMapping("/birds/batch")
+    List<Bird> getBirdsByIds(@RequestBody List<String> ids);
 }
@@ -1,9 +1,14 @@
 package com.user.user.client;
 
 import com.user.user.models.Post;
+import com.user.user.models.PostPage;
+import com.user.user.models.PostSummaryDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 
 @FeignClient(name = "post")
@@ -12,9 +17,16 @@ public interface PostClient {
     @GetMapping("/sightings/{id}")
     Post getPostById(@PathVariable("id") String id);
     
-    @GetMapping("/sightings/batch")
-    List<Post> getPostsByIds(List<String> ids);
+    // At most 1000 ids per call; header, image, tags and counts for rendering
+    @PostMapping("/sightings/batch?view=summary")
+    List<PostSummaryDTO> getPostSummariesByIds(@RequestBody List<String> ids);
     
-    @GetMapping("/sightings/user/{userId}")
-    List<Post> getPostsByUserId(@PathVariable("userId") String userId);
+    // from is an ISO-8601 instant; pass the previous page's next as after
+    @GetMapping("/sightings/author/{userId}")
+    PostPage getPostsByAuthor(
+        @PathVariable("userId") String userId,
+        @RequestParam("from") String from,
+        @RequestParam("limit") int limit,
+        @RequestParam(value = "after", required = false) String after
+    );
 }
@@ -12,7 +12,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.user.user.service.FriendSuggestionService;
+import com.user.user.service.UserSearchService;
 import com.user.user.service.UserService;
+import com.user.user.service.UserStatsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,29 +24,26 @@ import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final int MAX_FRIEND_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final UserStatsService userStatsService;
+    private final UserSearchService userSearchService;
+    private final FriendSuggestionService friendSuggestionService;
     private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService, ObjectMapper objectMapper) {
+    public UserController(UserService userService, UserStatsService userStatsService, UserSearchService userSearchService, FriendSuggestionService friendSuggestionService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userStatsService = userStatsService;
+        this.userSearchService = userSearchService;
+        this.friendSuggestionService = friendSuggestionService;
         this.objectMapper = objectMapper;
     }
 
     @GetMapping
     public List<UserSummaryDTO> getAllUsers() {
         return userService.getAllUsers().stream()
-                .map(user -> new UserSummaryDTO(
-                        user.getId().toHexString(),
-                        user.getUsername(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getLocation(),
-                        user.getRole().name(),
-                        user.getProfilePic(),
-                        toHexArray(user.getFriends()),
-                        toHexArray(user.getPosts()),
-                        toHexArray(user.getGroups())
-                ))
+                .map(this::toSummary)
                 .toList();
     }
 
@@ -56,47 +56,84 @@ public class UserController {
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
-
-        return ResponseEntity.ok(
-                new UserSummaryDTO(
-                        user.getId().toHexString(),
-                        user.getUsername(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getLocation(),
-                        user.getRole().name(),
-                        user.getProfilePic(),
-                        toHexArray(user.getFriends()),
-                        toHexArray(user.getPosts()),
-                        toHexArray(user.getGroups())
-                )
-        );
+        return ResponseEntity.ok(toSummary(user));
     }
 
 
+    // Ranked exact, prefix, then substring matches on username and name: GET /users/search?query=..&limit=20
     @GetMapping("/search")
-    public List<User> searchUsers(@RequestParam String query) {
-        return userService.searchUsersByUsername(query);
+    public List<UserSearchResultDTO> searchUsers(@RequestParam String query, @RequestParam(defaultValue = "20") int limit) {
+        return userSearchService.search(query, limit);
     }
 
     @GetMapping("/{id}/friends")
     public List<UserSummaryDTO> getFriends(@PathVariable String id) {
         return userService.getFriendsList(new ObjectId(id)).stream()
-                .map(user -> new UserSummaryDTO(
-                        user.getId().toHexString(),
-                        user.getUsername(),
-                        user.getFirstName(),
-                        user.getLastName(),
-                        user.getLocation(),
-                        user.getRole().name(),
-                        user.getProfilePic(),
-                        toHexArray(user.getFriends()),
-                        toHexArray(user.getPosts()),
-                        toHexArray(user.getGroups())
-                ))
+                .map(this::toSummary)
                 .toList();
     }
 
+    // Paged in friend id order: GET /users/{id}/friends?limit=50&after=<next from the previous page>
+    @GetMapping(value = "/{id}/friends", params = "limit")
+    public ResponseEntity<FriendPage> getFriendsPage(
+            @PathVariable String id,
+            @RequestParam int limit,
+            @RequestParam(required = false) String after) {
+        try {
+            int pageSize = Math.max(1, Math.min(limit, MAX_FRIEND_PAGE_SIZE));
+            ObjectId afterId = after == null || after.isBlank() ? null : new ObjectId(after);
+            List<User> friends = userService.getFriendsPage(new ObjectId(id), afterId, pageSize + 1);
+
+            String next = null;
+            if (friends.size() > pageSize) {
+                friends = friends.subList(0, pageSize);
+                next = friends.get(pageSize - 1).getId().toHexString();
+            }
+            List<UserSummaryDTO> items = friends.stream()
+                    .map(this::toSummary)
+                    .toList();
+            return ResponseEntity.ok(new FriendPage(items, next));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Friends of friends, ranked by mutual friends then shared bird species: GET /users/{id}/suggestions?limit=20
+    @GetMapping("/{id}/suggestions")
+    public ResponseEntity<List<FriendSuggestionDTO>> getFriendSuggestions(@PathVariable String id, @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(friendSuggestionService.suggest(new ObjectId(id), limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Friend flag and mutual friend count for each listed user, from the viewer's side:
+    // POST /users/{viewerId}/relationships with a JSON array of up to 200 user ids
+    @PostMapping("/{viewerId}/relationships")
+    public ResponseEntity<List<RelationshipDTO>> getRelationships(@PathVariable String viewerId, @RequestBody List<String> targetIds) {
+        try {
+            List<ObjectId> targets = targetIds.stream()
+                    .distinct()
+                    .map(ObjectId::new)
+                    .toList();
+            return ResponseEntity.ok(userService.getRelationships(new ObjectId(viewerId), targets));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Ids only, for callers that filter by friendship; profiles render /friends pages instead
+    @GetMapping("/{id}/friend-ids")
+    public List<String> getFriendIds(@PathVariable String id) {
+        return userService.getFriendIds(new ObjectId(id));
+    }
+
+    @GetMapping("/{id}/followers")
+    public List<String> getFollowerIds(@PathVariable String id) {
+        return userService.getFollowerIds(new ObjectId(id));
+    }
+
     @GetMapping("/{id}/groups")
     public List<Group> getGroups(@PathVariable String id) {
 
@@ -105,7 +142,7 @@ public class UserController {
     }
 
     @GetMapping("/{id}/posts")
-    public List<Post> getPosts(@PathVariable String id) {
+    public List<PostSummaryDTO> getPosts(@PathVariable String id) {
         ObjectId userId = new ObjectId(id);
         return userService.getPostsList(userId);
     }
@@ -120,7 +157,7 @@ public class UserController {
     public ResponseEntity<Map<String, Object>> getUserStats(@PathVariable String id) {
         try {
             ObjectId userObjId = new ObjectId(id);
-            Map<String, Object> stats = userService.getUserStats(userObjId);
+            Map<String, Object> stats = userStatsService.getUserStats(userObjId);
             return ResponseEntity.ok(stats);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
@@ -129,6 +166,16 @@ public class UserController {
         }
     }
 
+    @PutMapping("/{id}/stats/sightings")
+    public ResponseEntity<String> recordSighting(@PathVariable String id, @RequestBody SightingEvent event) {
+        try {
+            userStatsService.recordSighting(new ObjectId(id), event);
+            return ResponseEntity.ok("Stats updated");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     @PostMapping
     public ResponseEntity<String> registerUser(@Valid @RequestBody User userRequest){ 
         
@@ -191,6 +238,30 @@ public class UserController {
         return new ResponseEntity<String>("Post added successfully", HttpStatus.OK);
     }
 
+    // Seeding and migration: body maps user id -> group ids to add
+    @PutMapping("/groups")
+    @PreAuthorize("hasRole('SUPER_USER')")
+    public ResponseEntity<String> addGroupsBulk(@RequestBody Map<String, List<String>> groupIdsByUser) {
+        try {
+            long matched = userService.addGroups(toObjectIdMap(groupIdsByUser));
+            return ResponseEntity.ok("Groups added for " + matched + " users");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Seeding and migration: body maps user id -> post ids to add
+    @PutMapping("/posts")
+    @PreAuthorize("hasRole('SUPER_USER')")
+    public ResponseEntity<String> addPostsBulk(@RequestBody Map<String, List<String>> postIdsByUser) {
+        try {
+            long matched = userService.addPosts(toObjectIdMap(postIdsByUser));
+            return ResponseEntity.ok("Posts added for " + matched + " users");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /*@PutMapping("/update/{id}")
     public ResponseEntity<User> updateUser(@PathVariable String id, @RequestBody User userRequest){
 
@@ -234,18 +305,7 @@ public class UserController {
             
             User updatedUser = userService.updateUserRole(userId, newRole);
             
-            UserSummaryDTO userDTO = new UserSummaryDTO(
-                updatedUser.getId().toHexString(),
-                updatedUser.getUsername(),
-                updatedUser.getFirstName(),
-                updatedUser.getLastName(),
-                updatedUser.getLocation(),
-                updatedUser.getRole().name(),
-                updatedUser.getProfilePic(),
-                toHexArray(updatedUser.getFriends()),
-                toHexArray(updatedUser.getPosts()),
-                toHexArray(updatedUser.getGroups())
-            );
+            UserSummaryDTO userDTO = toSummary(updatedUser);
             
             return ResponseEntity.ok(userDTO);
         } catch (IllegalArgumentException e) {
@@ -255,6 +315,30 @@ public class UserController {
         }
     }
 
+    private UserSummaryDTO toSummary(User user) {
+        return new UserSummaryDTO(
+                user.getId().toHexString(),
+                user.getUsername(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getLocation(),
+                user.getRole().name(),
+                user.getProfilePic(),
+                user.getFriendCount(),
+                toHexArray(user.getPosts()),
+                toHexArray(user.getGroups())
+        );
+    }
+
+    private Map<ObjectId, List<ObjectId>> toObjectIdMap(Map<String, List<String>> idsByUser) {
+        Map<ObjectId, List<ObjectId>> result = new java.util.LinkedHashMap<>();
+        idsByUser.forEach((userId, ids) -> result.put(
+                new ObjectId(userId),
+                ids == null ? List.of() : ids.stream().map(ObjectId::new).toList()
+        ));
+        return result;
+    }
+
     private String[] toHexArray(ObjectId[] ids) {
         if (ids == null) return new String[0];
 
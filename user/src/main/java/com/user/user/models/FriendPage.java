@@ -0,0 +1,12 @@
+package com.user.user.models;
+
+import java.util.List;
+
+/**
+ * One page of a user's friends. {@code next} is the token to pass back as
+ * {@code after}, or null on the last page.
+ */
+public record FriendPage(
+        List<UserSummaryDTO> items,
+        String next
+) {}
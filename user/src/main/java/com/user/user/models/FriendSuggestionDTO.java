@@ -0,0 +1,11 @@
+package com.user.user.models;
+
+public record FriendSuggestionDTO(
+        String id,
+        String username,
+        String firstName,
+        String lastName,
+        String profilePic,
+        int mutualFriends,
+        int sharedBirds
+) {}
@@ -0,0 +1,61 @@
+package com.user.user.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One friend edge: user a has user b as a friend. Edges are one-directional,
+ * like the old friends arrays; b's followers are the edges that point at b.
+ */
+@Document(collection = "friendships")
+@CompoundIndex(name = "a_b", def = "{'a': 1, 'b': 1}", unique = true)
+@CompoundIndex(name = "b_a", def = "{'b': 1, 'a': 1}")
+public class Friendship {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId a;
+
+    private ObjectId b;
+
+    private Date since;
+
+    public Friendship() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public ObjectId getA() {
+        return a;
+    }
+
+    public void setA(ObjectId a) {
+        this.a = a;
+    }
+
+    public ObjectId getB() {
+        return b;
+    }
+
+    public void setB(ObjectId b) {
+        this.b = b;
+    }
+
+    public Date getSince() {
+        return since;
+    }
+
+    public void setSince(Date since) {
+        this.since = since;
+    }
+}
@@ -0,0 +1,30 @@
+package com.user.user.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of posts from the Post microservice; next is null on the last page
+ */
+public class PostPage {
+    private List<Post> items = new ArrayList<>();
+    private String next;
+
+    public PostPage() {}
+
+    public List<Post> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Post> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
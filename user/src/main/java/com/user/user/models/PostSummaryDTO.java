@@ -0,0 +1,20 @@
+package com.user.user.models;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * A post as the profile pages render it, from the Post microservice's batch
+ * summary view. Counts stand in for the likes and comments arrays.
+ */
+public record PostSummaryDTO(
+        String id,
+        String header,
+        String image,
+        String bird,
+        Map<String, String> tags,
+        String textBody,
+        Date timestamp,
+        int likeCount,
+        int commentCount
+) {}
@@ -0,0 +1,7 @@
+package com.user.user.models;
+
+public record RelationshipDTO(
+        String id,
+        boolean friend,
+        int mutualFriends
+) {}
@@ -0,0 +1,39 @@
+package com.user.user.models;
+
+import org.bson.types.ObjectId;
+import java.util.Date;
+
+/**
+ * Sent by the Post microservice when a sighting is created (delta 1) or deleted (delta -1)
+ */
+public class SightingEvent {
+    private ObjectId bird;
+    private Date timestamp;
+    private int delta;
+
+    public SightingEvent() {}
+
+    public ObjectId getBird() {
+        return bird;
+    }
+
+    public void setBird(ObjectId bird) {
+        this.bird = bird;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
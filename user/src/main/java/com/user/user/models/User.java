@@ -35,7 +35,8 @@ public class User {
     private String location;
     private Boolean onboardingComplete = false;
 
-    private ObjectId[] friends;
+    // Friend edges live in the friendships collection; only the count is kept here
+    private int friendCount = 0;
     private ObjectId[] posts;
     private ObjectId[] groups;
 
@@ -52,7 +53,7 @@ public class User {
         this.lastName = null;
         this.location = null;
         this.onboardingComplete = false;
-        this.friends = new ObjectId[0];
+        this.friendCount = 0;
         this.posts = new ObjectId[0];
         this.groups = new ObjectId[0];
     }
@@ -67,7 +68,7 @@ public class User {
         String lastName,
         String location,
         Boolean onboardingComplete,
-        ObjectId[] friends,
+        int friendCount,
         ObjectId[] posts,
         ObjectId[] groups
     ) {
@@ -80,7 +81,7 @@ public class User {
         this.lastName = lastName;
         this.location = location;
         this.onboardingComplete = onboardingComplete;
-        this.friends = friends;
+        this.friendCount = friendCount;
         this.posts = posts;
         this.groups = groups;
     }
@@ -157,12 +158,12 @@ public class User {
         this.onboardingComplete = onboardingComplete;
     }
 
-    public ObjectId[] getFriends() {
-        return friends;
+    public int getFriendCount() {
+        return friendCount;
     }
 
-    public void setFriends(ObjectId[] friends) {
-        this.friends = friends;
+    public void setFriendCount(int friendCount) {
+        this.friendCount = friendCount;
     }
 
     public ObjectId[] getPosts() {
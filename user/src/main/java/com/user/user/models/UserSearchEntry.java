@@ -0,0 +1,104 @@
+package com.user.user.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search-only copy of a user: display fields plus normalized keys. Lookups
+ * are index range scans on the username and name words, and trigram
+ * postings for substrings, so the users collection itself is never scanned.
+ */
+@Document(collection = "user_search")
+public class UserSearchEntry {
+
+    // The user's id
+    @Id
+    private ObjectId id;
+
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String profilePic;
+
+    @Indexed
+    private String usernameKey;
+
+    // Normalized first and last name words
+    @Indexed
+    private List<String> nameWords = new ArrayList<>();
+
+    // Trigrams of the username and each name word
+    @Indexed
+    private List<String> grams = new ArrayList<>();
+
+    public UserSearchEntry() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getProfilePic() {
+        return profilePic;
+    }
+
+    public void setProfilePic(String profilePic) {
+        this.profilePic = profilePic;
+    }
+
+    public String getUsernameKey() {
+        return usernameKey;
+    }
+
+    public void setUsernameKey(String usernameKey) {
+        this.usernameKey = usernameKey;
+    }
+
+    public List<String> getNameWords() {
+        return nameWords;
+    }
+
+    public void setNameWords(List<String> nameWords) {
+        this.nameWords = nameWords;
+    }
+
+    public List<String> getGrams() {
+        return grams;
+    }
+
+    public void setGrams(List<String> grams) {
+        this.grams = grams;
+    }
+}
@@ -0,0 +1,9 @@
+package com.user.user.models;
+
+public record UserSearchResultDTO(
+        String id,
+        String username,
+        String firstName,
+        String lastName,
+        String profilePic
+) {}
@@ -0,0 +1,99 @@
+package com.user.user.models;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sighting rollup for one user, adjusted with $inc as posts are created and
+ * deleted. Bird keys are hex ids, month keys are yyyy-MM. Counts can reach
+ * zero but are never removed, so readers skip non-positive entries. Every
+ * event bumps revision, which a rebuild checks before it writes.
+ */
+@Document(collection = "user_stats")
+public class UserStats {
+
+    // The user's id
+    @Id
+    private ObjectId id;
+
+    private int totalSpottings;
+    private Date firstSighting;
+
+    private Map<String, Integer> birdCounts = new HashMap<>();
+    private Map<String, Integer> monthlyTotals = new HashMap<>();
+    private Map<String, Map<String, Integer>> monthlyBirdCounts = new HashMap<>();
+
+    private Date rebuiltAt;
+    private long revision;
+
+    public UserStats() {}
+
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public int getTotalSpottings() {
+        return totalSpottings;
+    }
+
+    public void setTotalSpottings(int totalSpottings) {
+        this.totalSpottings = totalSpottings;
+    }
+
+    public Date getFirstSighting() {
+        return firstSighting;
+    }
+
+    public void setFirstSighting(Date firstSighting) {
+        this.firstSighting = firstSighting;
+    }
+
+    public Map<String, Integer> getBirdCounts() {
+        return birdCounts;
+    }
+
+    public void setBirdCounts(Map<String, Integer> birdCounts) {
+        this.birdCounts = birdCounts;
+    }
+
+    public Map<String, Integer> getMonthlyTotals() {
+        return monthlyTotals;
+    }
+
+    public void setMonthlyTotals(Map<String, Integer> monthlyTotals) {
+        this.monthlyTotals = monthlyTotals;
+    }
+
+    public Map<String, Map<String, Integer>> getMonthlyBirdCounts() {
+        return monthlyBirdCounts;
+    }
+
+    public void setMonthlyBirdCounts(Map<String, Map<String, Integer>> monthlyBirdCounts) {
+        this.monthlyBirdCounts = monthlyBirdCounts;
+    }
+
+    public Date getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    public void setRebuiltAt(Date rebuiltAt) {
+        this.rebuiltAt = rebuiltAt;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+}
@@ -8,7 +8,7 @@ public record UserSummaryDTO(
         String location,
         String role,
         String profilePic,
-        String[] friends,
+        int friendCount,
         String[] posts,
         String[] groups
 ) {}
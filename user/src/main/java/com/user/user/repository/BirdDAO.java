@@ -4,6 +4,9 @@ import com.user.user.client.BirdClient;
 import com.user.user.models.Bird;
 import org.bson.types.ObjectId;
 import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,6 +15,9 @@ import java.util.Optional;
  */
 @Repository
 public class BirdDAO {
+
+    // Matches the bird service's per-request limit
+    private static final int MAX_BATCH_SIZE = 500;
     
     private final BirdClient birdClient;
     
@@ -27,4 +33,19 @@ public class BirdDAO {
             return Optional.empty();
         }
     }
+
+    public List<Bird> findAllById(Collection<ObjectId> ids) {
+        try {
+            List<String> hexIds = ids.stream().map(ObjectId::toHexString).distinct().toList();
+
+            List<Bird> birds = new ArrayList<>(hexIds.size());
+            for (int start = 0; start < hexIds.size(); start += MAX_BATCH_SIZE) {
+                birds.addAll(birdClient.getBirdsByIds(hexIds.subList(start, Math.min(start + MAX_BATCH_SIZE, hexIds.size()))));
+            }
+            return birds;
+        } catch (Exception e) {
+            System.err.println("Error fetching birds by id: " + e.getMessage());
+            return List.of();
+        }
+    }
 }
@@ -2,8 +2,12 @@ package com.user.user.repository;
 
 import com.user.user.client.PostClient;
 import com.user.user.models.Post;
+import com.user.user.models.PostPage;
+import com.user.user.models.PostSummaryDTO;
 import org.bson.types.ObjectId;
 import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,6 +18,10 @@ import java.util.stream.Collectors;
  */
 @Repository
 public class PostDAO {
+
+    // Matches the post service's per-request limit
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int AUTHOR_PAGE_SIZE = 500;
     
     private final PostClient postClient;
     
@@ -30,22 +38,49 @@ public class PostDAO {
         }
     }
     
-    public List<Post> findAllById(List<ObjectId> ids) {
+    public List<PostSummaryDTO> findSummariesById(List<ObjectId> ids) {
         try {
             List<String> hexIds = ids.stream()
                     .map(ObjectId::toHexString)
                     .collect(Collectors.toList());
-            return postClient.getPostsByIds(hexIds);
+
+            List<PostSummaryDTO> posts = new ArrayList<>(hexIds.size());
+            for (int start = 0; start < hexIds.size(); start += MAX_BATCH_SIZE) {
+                posts.addAll(postClient.getPostSummariesByIds(hexIds.subList(start, Math.min(start + MAX_BATCH_SIZE, hexIds.size()))));
+            }
+            return posts;
         } catch (Exception e) {
+            System.err.println("Error fetching posts by id: " + e.getMessage());
             return List.of();
         }
     }
-    
-    public List<Post> findByUserId(ObjectId userId) {
+
+    // Only id, bird and timestamp are populated
+    public List<Post> findByUserIdSince(ObjectId userId, Date from) {
         try {
-            return postClient.getPostsByUserId(userId.toHexString());
+            return fetchByAuthor(userId, from);
         } catch (Exception e) {
+            System.err.println("Error fetching posts for user " + userId + ": " + e.getMessage());
             return List.of();
         }
     }
+
+    // Every post by the user; unlike the finders above this throws when the post service fails,
+    // so callers rebuilding derived data don't mistake an outage for an empty history
+    public List<Post> findAllByUserId(ObjectId userId) {
+        return fetchByAuthor(userId, new Date(0));
+    }
+
+    private List<Post> fetchByAuthor(ObjectId userId, Date from) {
+        List<Post> posts = new ArrayList<>();
+        String after = null;
+        do {
+            PostPage page = postClient.getPostsByAuthor(
+                userId.toHexString(), from.toInstant().toString(), AUTHOR_PAGE_SIZE, after
+            );
+            posts.addAll(page.getItems());
+            after = page.getNext();
+        } while (after != null);
+        return posts;
+    }
 }
@@ -14,7 +14,4 @@ import com.user.user.models.User;
 public interface UserDAO extends MongoRepository<User, ObjectId>{
     @Query("{\"username\": ?0}")
     Optional<User> findByUsername(String username);
-
-    @Query("{ 'username': { $regex: ?0, $options: 'i' } }")
-    List<User> findByUsernameContaining(String username);
 }
@@ -53,11 +53,15 @@ public class SecurityConfig {
                 // PUBLIC - Static media
                 .requestMatchers(HttpMethod.GET, "/images/**", "/profile_pictures/**", "/backend_profile_pictures/**").permitAll()
 
+                // PUBLIC - Redirects to presigned S3 media
+                .requestMatchers(HttpMethod.GET, "/media/**").permitAll()
+
                 // PUBLIC - Internal service callback used by group-service
                 .requestMatchers(HttpMethod.PUT, "/users/*/groups/*").permitAll()
 
                 // PUBLIC - Internal service callback used by post-service
                 .requestMatchers(HttpMethod.PUT, "/users/*/posts/*").permitAll()
+                .requestMatchers(HttpMethod.PUT, "/users/*/stats/sightings").permitAll()
 
                 // AUTHENTICATED - Everything else in User Service
                 .anyRequest().authenticated()
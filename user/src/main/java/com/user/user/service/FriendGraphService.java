@@ -0,0 +1,235 @@
+package com.user.user.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.user.user.models.Friendship;
+import com.user.user.models.RelationshipDTO;
+import com.user.user.models.User;
+
+/**
+ * Friend edges stored one document per edge in the friendships collection.
+ * Adding or removing a friend touches only that edge, and the user's
+ * friendCount moves only when the edge actually changed, so repeated or
+ * concurrent requests can't drift the count or lose another friend.
+ */
+@Service
+public class FriendGraphService {
+
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public FriendGraphService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // True when the edge is new
+    public boolean addFriend(ObjectId userId, ObjectId friendId) {
+        UpdateResult result = mongoTemplate.upsert(
+            edge(userId, friendId),
+            new Update().setOnInsert("since", new Date()),
+            Friendship.class
+        );
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+        adjustFriendCount(userId, 1);
+        return true;
+    }
+
+    // True when an edge was removed
+    public boolean removeFriend(ObjectId userId, ObjectId friendId) {
+        DeleteResult result = mongoTemplate.remove(edge(userId, friendId), Friendship.class);
+        if (result.getDeletedCount() == 0) {
+            return false;
+        }
+        adjustFriendCount(userId, -1);
+        return true;
+    }
+
+    public boolean isFriend(ObjectId userId, ObjectId friendId) {
+        return mongoTemplate.exists(edge(userId, friendId), Friendship.class);
+    }
+
+    // Friend ids in id order, served by the a_b index
+    public List<ObjectId> getFriendIds(ObjectId userId) {
+        return getFriendIds(userId, null, 0);
+    }
+
+    // Up to limit friend ids greater than after; limit 0 means all
+    public List<ObjectId> getFriendIds(ObjectId userId, ObjectId after, int limit) {
+        Criteria criteria = Criteria.where("a").is(userId);
+        if (after != null) {
+            criteria.and("b").gt(after);
+        }
+        Query query = new Query(criteria).with(Sort.by("b")).limit(limit);
+        query.fields().include("b").exclude("_id");
+        return mongoTemplate.find(query, Friendship.class).stream().map(Friendship::getB).toList();
+    }
+
+    // Feeds the friend id of every edge leaving userIds, stopping after maxEdges; returns edges read
+    public int forEachFriendOf(List<ObjectId> userIds, int maxEdges, Consumer<ObjectId> consumer) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Query query = new Query(Criteria.where("a").in(userIds)).limit(maxEdges);
+        query.fields().include("b").exclude("_id");
+
+        int read = 0;
+        try (Stream<Friendship> edges = mongoTemplate.stream(query, Friendship.class)) {
+            for (Friendship edge : (Iterable<Friendship>) edges::iterator) {
+                consumer.accept(edge.getB());
+                read++;
+            }
+        }
+        return read;
+    }
+
+    /**
+     * For each target: whether userId has them as a friend, and how many
+     * friends the two have in common. One a_b index scan returns the targets'
+     * edges grouped by target and in friend id order, so each target is a
+     * single merge pass against userId's sorted friend ids. Only counts leave
+     * this method, never the friend lists.
+     */
+    public List<RelationshipDTO> getRelationships(ObjectId userId, List<ObjectId> targetIds) {
+        ObjectId[] friends = getFriendIds(userId).toArray(ObjectId[]::new);
+        Map<ObjectId, Integer> mutual = new HashMap<>();
+
+        if (friends.length > 0 && !targetIds.isEmpty()) {
+            Query query = new Query(Criteria.where("a").in(targetIds)).with(Sort.by("a", "b"));
+            query.fields().include("a").include("b").exclude("_id");
+
+            ObjectId target = null;
+            int cursor = 0;
+            int shared = 0;
+            try (Stream<Friendship> edges = mongoTemplate.stream(query, Friendship.class)) {
+                for (Friendship edge : (Iterable<Friendship>) edges::iterator) {
+                    if (!edge.getA().equals(target)) {
+                        if (target != null) {
+                            mutual.put(target, shared);
+                        }
+                        target = edge.getA();
+                        cursor = 0;
+                        shared = 0;
+                    }
+                    // ObjectId ordering matches the index's, so both sides advance monotonically
+                    while (cursor < friends.length && friends[cursor].compareTo(edge.getB()) < 0) {
+                        cursor++;
+                    }
+                    if (cursor < friends.length && friends[cursor].equals(edge.getB())) {
+                        shared++;
+                        cursor++;
+                    }
+                }
+            }
+            if (target != null) {
+                mutual.put(target, shared);
+            }
+        }
+
+        return targetIds.stream()
+                .map(targetId -> new RelationshipDTO(
+                        targetId.toHexString(),
+                        Arrays.binarySearch(friends, targetId) >= 0,
+                        mutual.getOrDefault(targetId, 0)
+                ))
+                .toList();
+    }
+
+    // Users who have userId as a friend, served by the b_a index
+    public List<ObjectId> getFollowerIds(ObjectId userId) {
+        Query query = new Query(Criteria.where("b").is(userId)).with(Sort.by("a"));
+        query.fields().include("a").exclude("_id");
+        return mongoTemplate.find(query, Friendship.class).stream().map(Friendship::getA).toList();
+    }
+
+    // Drops every edge touching a deleted user and fixes the counts of users who had them as a friend
+    public void removeUser(ObjectId userId) {
+        List<ObjectId> followers = getFollowerIds(userId);
+        mongoTemplate.remove(new Query(new Criteria().orOperator(
+            Criteria.where("a").is(userId),
+            Criteria.where("b").is(userId)
+        )), Friendship.class);
+        if (!followers.isEmpty()) {
+            mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(followers)),
+                new Update().inc("friendCount", -1),
+                User.class
+            );
+        }
+    }
+
+    /**
+     * Moves legacy users.friends arrays into edges, then sets friendCount from
+     * the edges and drops the array. Safe to rerun: edges are upserts and each
+     * user is finished in one update.
+     */
+    public void migrateFriendArrays() {
+        Query legacy = new Query(Criteria.where("friends").exists(true));
+        legacy.fields().include("friends");
+
+        int migrated = 0;
+        try (Stream<Document> users = mongoTemplate.stream(legacy, Document.class, "users")) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                ObjectId userId = user.getObjectId("_id");
+                List<ObjectId> friendIds = new ArrayList<>();
+                for (Object friend : user.getList("friends", Object.class, List.of())) {
+                    if (friend instanceof ObjectId friendId && !friendId.equals(userId)) {
+                        friendIds.add(friendId);
+                    }
+                }
+
+                for (int start = 0; start < friendIds.size(); start += MIGRATION_BATCH_SIZE) {
+                    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Friendship.class);
+                    for (ObjectId friendId : friendIds.subList(start, Math.min(start + MIGRATION_BATCH_SIZE, friendIds.size()))) {
+                        bulk.upsert(edge(userId, friendId), new Update().setOnInsert("since", new Date()));
+                    }
+                    bulk.execute();
+                }
+
+                long friendCount = mongoTemplate.count(new Query(Criteria.where("a").is(userId)), Friendship.class);
+                mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(userId)),
+                    new Update().set("friendCount", friendCount).unset("friends"),
+                    "users"
+                );
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Friend arrays migrated to edges for " + migrated + " users");
+        }
+    }
+
+    private void adjustFriendCount(ObjectId userId, int delta) {
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(userId)),
+            new Update().inc("friendCount", delta),
+            User.class
+        );
+    }
+
+    private static Query edge(ObjectId a, ObjectId b) {
+        return new Query(Criteria.where("a").is(a).and("b").is(b));
+    }
+}
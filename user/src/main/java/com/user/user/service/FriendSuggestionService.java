@@ -0,0 +1,274 @@
+package com.user.user.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.user.user.models.FriendSuggestionDTO;
+import com.user.user.models.User;
+import com.user.user.models.UserStats;
+import com.user.user.repository.UserDAO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * "People you may know": users two hops out along friend edges, ranked by
+ * how many of the viewer's friends have them as a friend, then by how many
+ * bird species both have sighted. Each viewer's 2-hop counts are built once
+ * into int slots and cached; edge changes adjust cached counts in place
+ * rather than dropping every neighbourhood they touch.
+ */
+@Service
+public class FriendSuggestionService {
+
+    static final Duration CACHE_TTL = Duration.ofMinutes(10);
+
+    private static final int MAX_RESULTS = 50;
+    // Bounds a build for users with very large neighbourhoods
+    private static final int MAX_FRIENDS_SCANNED = 2000;
+    private static final int MAX_EDGES_SCANNED = 200_000;
+    // Candidates, by mutual count, that are scored on shared birds
+    private static final int RANKED_POOL = 200;
+
+    private final FriendGraphService friendGraphService;
+    private final MongoTemplate mongoTemplate;
+    private final UserDAO userDAO;
+    private final Cache<ObjectId, Neighbourhood> neighbourhoods;
+
+    public FriendSuggestionService(
+            FriendGraphService friendGraphService,
+            MongoTemplate mongoTemplate,
+            UserDAO userDAO,
+            MeterRegistry meterRegistry,
+            @Value("${user.suggestions.cache-size:10000}") long cacheSize
+    ) {
+        this.friendGraphService = friendGraphService;
+        this.mongoTemplate = mongoTemplate;
+        this.userDAO = userDAO;
+        this.neighbourhoods = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(CACHE_TTL)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, neighbourhoods, "user.friend-suggestions");
+    }
+
+    public List<FriendSuggestionDTO> suggest(ObjectId userId, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+
+        List<Candidate> pool = neighbourhoods.get(userId, this::build).top(RANKED_POOL);
+        if (pool.isEmpty()) {
+            return List.of();
+        }
+
+        Map<ObjectId, Integer> shared = sharedBirds(userId, pool);
+        List<Candidate> ranked = pool.stream()
+                .sorted(Comparator.comparingInt(Candidate::mutual).reversed()
+                        .thenComparing(candidate -> shared.getOrDefault(candidate.id(), 0), Comparator.reverseOrder())
+                        .thenComparing(Candidate::id))
+                .limit(max)
+                .toList();
+
+        Map<ObjectId, User> users = new HashMap<>();
+        userDAO.findAllById(ranked.stream().map(Candidate::id).toList())
+                .forEach(user -> users.put(user.getId(), user));
+
+        List<FriendSuggestionDTO> suggestions = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            User user = users.get(candidate.id());
+            if (user == null) {
+                continue;
+            }
+            suggestions.add(new FriendSuggestionDTO(
+                    user.getId().toHexString(),
+                    user.getUsername(),
+                    user.getFirstName(),
+                    user.getLastName(),
+                    UserService.resolveProfilePic(user.getProfilePic()),
+                    candidate.mutual(),
+                    shared.getOrDefault(candidate.id(), 0)
+            ));
+        }
+        return suggestions;
+    }
+
+    // userId's own friends changed, so its neighbourhood is rebuilt on next read;
+    // everyone who has userId as a friend gains a path to friendId
+    public void onFriendAdded(ObjectId userId, ObjectId friendId) {
+        neighbourhoods.invalidate(userId);
+        for (Neighbourhood hood : neighbourhoods.asMap().values()) {
+            if (hood.hasFriend(userId)) {
+                hood.adjust(friendId, 1);
+            }
+        }
+    }
+
+    public void onFriendRemoved(ObjectId userId, ObjectId friendId) {
+        neighbourhoods.invalidate(userId);
+        for (Neighbourhood hood : neighbourhoods.asMap().values()) {
+            if (hood.hasFriend(userId)) {
+                hood.adjust(friendId, -1);
+            }
+        }
+    }
+
+    public void onUserRemoved(ObjectId userId) {
+        neighbourhoods.invalidate(userId);
+        neighbourhoods.asMap().entrySet().removeIf(entry -> entry.getValue().hasFriend(userId));
+        neighbourhoods.asMap().values().forEach(hood -> hood.drop(userId));
+    }
+
+    private Neighbourhood build(ObjectId userId) {
+        List<ObjectId> friends = friendGraphService.getFriendIds(userId);
+        Neighbourhood hood = new Neighbourhood(userId, friends.toArray(ObjectId[]::new));
+        List<ObjectId> scanned = friends.subList(0, Math.min(friends.size(), MAX_FRIENDS_SCANNED));
+        friendGraphService.forEachFriendOf(scanned, MAX_EDGES_SCANNED, friendOfFriend -> hood.adjust(friendOfFriend, 1));
+        return hood;
+    }
+
+    // Species with a positive count for both the viewer and the candidate
+    private Map<ObjectId, Integer> sharedBirds(ObjectId userId, List<Candidate> pool) {
+        List<ObjectId> ids = new ArrayList<>(pool.size() + 1);
+        ids.add(userId);
+        pool.forEach(candidate -> ids.add(candidate.id()));
+
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("birdCounts");
+        List<UserStats> rollups = mongoTemplate.find(query, UserStats.class);
+
+        // The viewer's species get slots 0..n-1 so each candidate's overlap is one bitset intersection
+        Map<String, Integer> slots = new HashMap<>();
+        BitSet viewerBirds = new BitSet();
+        rollups.stream()
+                .filter(rollup -> rollup.getId().equals(userId))
+                .findFirst()
+                .ifPresent(rollup -> birdsOf(rollup).forEach(bird -> {
+                    int slot = slots.size();
+                    slots.put(bird, slot);
+                    viewerBirds.set(slot);
+                }));
+
+        Map<ObjectId, Integer> shared = new HashMap<>();
+        if (slots.isEmpty()) {
+            return shared;
+        }
+        for (UserStats rollup : rollups) {
+            if (rollup.getId().equals(userId)) {
+                continue;
+            }
+            BitSet theirs = new BitSet(slots.size());
+            for (String bird : birdsOf(rollup)) {
+                Integer slot = slots.get(bird);
+                if (slot != null) {
+                    theirs.set(slot);
+                }
+            }
+            theirs.and(viewerBirds);
+            shared.put(rollup.getId(), theirs.cardinality());
+        }
+        return shared;
+    }
+
+    private static List<String> birdsOf(UserStats rollup) {
+        if (rollup.getBirdCounts() == null) {
+            return List.of();
+        }
+        return rollup.getBirdCounts().entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private record Candidate(ObjectId id, int mutual) {}
+
+    /**
+     * One viewer's 2-hop counts. Candidates are interned into dense int slots
+     * so counts live in a primitive array; friends are kept sorted for
+     * binary-search exclusion.
+     */
+    private static final class Neighbourhood {
+
+        private final ObjectId viewer;
+        private final ObjectId[] friends;
+        private final Map<ObjectId, Integer> slots = new HashMap<>();
+        private ObjectId[] ids = new ObjectId[64];
+        private int[] mutual = new int[64];
+
+        Neighbourhood(ObjectId viewer, ObjectId[] friends) {
+            this.viewer = viewer;
+            this.friends = friends;
+            Arrays.sort(this.friends);
+        }
+
+        boolean hasFriend(ObjectId id) {
+            return Arrays.binarySearch(friends, id) >= 0;
+        }
+
+        synchronized void adjust(ObjectId candidate, int delta) {
+            if (candidate.equals(viewer) || hasFriend(candidate)) {
+                return;
+            }
+            Integer slot = slots.get(candidate);
+            if (slot == null) {
+                if (delta <= 0) {
+                    return;
+                }
+                slot = slots.size();
+                if (slot == ids.length) {
+                    ids = Arrays.copyOf(ids, slot * 2);
+                    mutual = Arrays.copyOf(mutual, slot * 2);
+                }
+                ids[slot] = candidate;
+                slots.put(candidate, slot);
+            }
+            mutual[slot] = Math.max(0, mutual[slot] + delta);
+        }
+
+        synchronized void drop(ObjectId candidate) {
+            Integer slot = slots.get(candidate);
+            if (slot != null) {
+                mutual[slot] = 0;
+            }
+        }
+
+        // Highest mutual counts first; a bounded min-heap keeps this O(slots log n)
+        synchronized List<Candidate> top(int n) {
+            Comparator<Integer> byRank = Comparator.<Integer>comparingInt(slot -> mutual[slot])
+                    .thenComparing(slot -> ids[slot], Comparator.reverseOrder());
+            PriorityQueue<Integer> heap = new PriorityQueue<>(n + 1, byRank);
+            for (int slot = 0; slot < slots.size(); slot++) {
+                if (mutual[slot] <= 0) {
+                    continue;
+                }
+                heap.add(slot);
+                if (heap.size() > n) {
+                    heap.poll();
+                }
+            }
+            List<Candidate> top = new ArrayList<>(heap.size());
+            for (Integer slot : heap) {
+                top.add(new Candidate(ids[slot], mutual[slot]));
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.user.user.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves any users still carrying an embedded friends array onto the
+ * friendships collection. Runs once per startup and only reads users that
+ * still have the old field.
+ */
+@Component
+public class FriendshipMigration {
+
+    private final FriendGraphService friendGraphService;
+
+    public FriendshipMigration(FriendGraphService friendGraphService) {
+        this.friendGraphService = friendGraphService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            friendGraphService.migrateFriendArrays();
+        } catch (Exception e) {
+            System.err.println("Friendship migration failed: " + e.getMessage());
+        }
+    }
+}
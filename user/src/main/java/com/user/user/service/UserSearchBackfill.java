@@ -0,0 +1,29 @@
+package com.user.user.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the user search collection for users created before it existed, or
+ * after it drifted, and drops entries left behind by deleted users. Runs once
+ * per startup and is a no-op when the counts match.
+ */
+@Component
+public class UserSearchBackfill {
+
+    private final UserSearchService userSearchService;
+
+    public UserSearchBackfill(UserSearchService userSearchService) {
+        this.userSearchService = userSearchService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            userSearchService.rebuildIfIncomplete();
+        } catch (Exception e) {
+            System.err.println("User search backfill failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.user.user.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.user.user.models.User;
+import com.user.user.models.UserSearchEntry;
+import com.user.user.models.UserSearchResultDTO;
+
+/**
+ * Username and name search backed by the user_search collection. Each tier
+ * is a bounded index scan: username prefix, name-word prefix, then trigram
+ * postings for substrings. Worse tiers are skipped once better ones fill the
+ * page, so cost depends on the limit rather than on the number of users.
+ */
+@Service
+public class UserSearchService {
+
+    // Lower is better
+    private static final int EXACT = 0;
+    private static final int USERNAME_PREFIX = 1;
+    private static final int NAME_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private static final int MAX_RESULTS = 50;
+    // Rows read per tier; enough to rank a page without reading a whole prefix range
+    private static final int CANDIDATE_LIMIT = 200;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public List<UserSearchResultDTO> search(String query, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        String[] words = q.split(" ");
+        String compact = q.replace(" ", "");
+
+        Map<ObjectId, UserSearchEntry> candidates = new LinkedHashMap<>();
+        Map<ObjectId, Integer> tiers = new LinkedHashMap<>();
+
+        if (words.length == 1) {
+            Query byUsername = new Query(Criteria.where("usernameKey").gte(q).lt(q + "\uffff"))
+                    .with(Sort.by("usernameKey"))
+                    .limit(CANDIDATE_LIMIT);
+            collect(byUsername, words, compact, candidates, tiers);
+        }
+
+        if (tiers.size() < max) {
+            String last = words[words.length - 1];
+            Query byName = new BasicQuery(new Document("nameWords",
+                    new Document("$elemMatch", new Document("$gte", last).append("$lt", last + "\uffff"))))
+                    .limit(CANDIDATE_LIMIT);
+            collect(byName, words, compact, candidates, tiers);
+        }
+
+        if (tiers.size() < max && compact.length() >= 3) {
+            Query byGrams = new Query(Criteria.where("grams").all(trigrams(compact))).limit(CANDIDATE_LIMIT);
+            collect(byGrams, words, compact, candidates, tiers);
+        }
+
+        return tiers.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<ObjectId, Integer>>comparingInt(Map.Entry::getValue)
+                        .thenComparingInt(entry -> candidates.get(entry.getKey()).getUsername().length())
+                        .thenComparing(entry -> candidates.get(entry.getKey()).getUsernameKey()))
+                .limit(max)
+                .map(entry -> toResult(candidates.get(entry.getKey())))
+                .toList();
+    }
+
+    public void index(User user) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(user.getId())), toUpdate(user), UserSearchEntry.class);
+    }
+
+    public void remove(ObjectId userId) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(userId)), UserSearchEntry.class);
+    }
+
+    // Re-indexes every user and drops entries for users that no longer exist when the search
+    // collection has fallen out of step with users
+    public void rebuildIfIncomplete() {
+        long users = mongoTemplate.count(new Query(), User.class);
+        if (mongoTemplate.count(new Query(), UserSearchEntry.class) == users) {
+            return;
+        }
+
+        Query all = new Query();
+        all.fields().include("username", "firstName", "lastName", "profilePic");
+
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserSearchEntry.class);
+        try (Stream<User> stream = mongoTemplate.stream(all, User.class)) {
+            for (User user : (Iterable<User>) stream::iterator) {
+                bulk.upsert(new Query(Criteria.where("_id").is(user.getId())), toUpdate(user));
+                if (++pending == REBUILD_BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserSearchEntry.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+
+        // Users are saved before they are indexed, so an entry whose user is missing here is stale
+        long removed = 0;
+        Query entries = new Query();
+        entries.fields().include("_id");
+        List<ObjectId> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+        try (Stream<UserSearchEntry> stream = mongoTemplate.stream(entries, UserSearchEntry.class)) {
+            for (UserSearchEntry entry : (Iterable<UserSearchEntry>) stream::iterator) {
+                batch.add(entry.getId());
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    removed += removeOrphans(batch);
+                    batch.clear();
+                }
+            }
+        }
+        removed += removeOrphans(batch);
+        System.out.println("User search index rebuilt for " + users + " users, " + removed + " stale entries removed");
+    }
+
+    private long removeOrphans(List<ObjectId> entryIds) {
+        if (entryIds.isEmpty()) {
+            return 0;
+        }
+        Query existing = new Query(Criteria.where("_id").in(entryIds));
+        existing.fields().include("_id");
+        Set<ObjectId> live = mongoTemplate.find(existing, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        List<ObjectId> orphans = entryIds.stream().filter(id -> !live.contains(id)).toList();
+        if (orphans.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.remove(new Query(Criteria.where("_id").in(orphans)), UserSearchEntry.class).getDeletedCount();
+    }
+
+    private void collect(Query query, String[] words, String compact, Map<ObjectId, UserSearchEntry> candidates, Map<ObjectId, Integer> tiers) {
+        query.fields().exclude("grams");
+        for (UserSearchEntry entry : mongoTemplate.find(query, UserSearchEntry.class)) {
+            if (tiers.containsKey(entry.getId())) {
+                continue;
+            }
+            int tier = tier(entry, words, compact);
+            if (tier >= 0) {
+                candidates.put(entry.getId(), entry);
+                tiers.put(entry.getId(), tier);
+            }
+        }
+    }
+
+    // -1 when the entry does not actually match
+    private static int tier(UserSearchEntry entry, String[] words, String compact) {
+        String username = entry.getUsernameKey() == null ? "" : entry.getUsernameKey();
+        if (username.equals(compact)) {
+            return EXACT;
+        }
+        if (words.length == 1 && username.startsWith(compact)) {
+            return USERNAME_PREFIX;
+        }
+
+        List<String> nameWords = entry.getNameWords() == null ? List.of() : entry.getNameWords();
+        boolean allWordsPrefixName = !nameWords.isEmpty();
+        for (String word : words) {
+            if (nameWords.stream().noneMatch(name -> name.startsWith(word))) {
+                allWordsPrefixName = false;
+                break;
+            }
+        }
+        if (allWordsPrefixName) {
+            return NAME_PREFIX;
+        }
+
+        if (username.contains(compact) || String.join("", nameWords).contains(compact)) {
+            return SUBSTRING;
+        }
+        return -1;
+    }
+
+    private static Update toUpdate(User user) {
+        String usernameKey = normalize(user.getUsername()).replace(" ", "");
+        List<String> nameWords = new ArrayList<>();
+        for (String name : new String[] { user.getFirstName(), user.getLastName() }) {
+            String normalized = normalize(name);
+            if (!normalized.isEmpty()) {
+                nameWords.addAll(List.of(normalized.split(" ")));
+            }
+        }
+
+        Set<String> grams = new LinkedHashSet<>(trigrams(usernameKey));
+        nameWords.forEach(word -> grams.addAll(trigrams(word)));
+
+        return new Update()
+                .set("username", user.getUsername())
+                .set("firstName", user.getFirstName())
+                .set("lastName", user.getLastName())
+                .set("profilePic", user.getProfilePic())
+                .set("usernameKey", usernameKey)
+                .set("nameWords", nameWords)
+                .set("grams", new ArrayList<>(grams));
+    }
+
+    private static UserSearchResultDTO toResult(UserSearchEntry entry) {
+        return new UserSearchResultDTO(
+                entry.getId().toHexString(),
+                entry.getUsername(),
+                entry.getFirstName(),
+                entry.getLastName(),
+                UserService.resolveProfilePic(entry.getProfilePic())
+        );
+    }
+
+    private static List<String> trigrams(String value) {
+        List<String> grams = new ArrayList<>();
+        for (int start = 0; start + 3 <= value.length(); start++) {
+            grams.add(value.substring(start, start + 3));
+        }
+        return grams;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]+", " ")
+                .trim();
+    }
+}
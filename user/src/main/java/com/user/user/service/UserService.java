@@ -1,13 +1,11 @@
 package com.user.user.service;
 
 import java.io.IOException;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -15,20 +13,27 @@ import java.time.*;
 
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import com.mongodb.client.result.UpdateResult;
 
 import com.user.user.models.Bird;
 import com.user.user.models.Group;
 import com.user.user.models.Post;
+import com.user.user.models.PostSummaryDTO;
+import com.user.user.models.RelationshipDTO;
 import com.user.user.models.Role;
 import com.user.user.models.User;
 import com.user.user.repository.GroupDAO;
@@ -39,13 +44,20 @@ import com.user.user.repository.BirdDAO;
 @Service
 public class UserService {
 
+    private static final String MEDIA_PATH_PREFIX = "/media/";
+    private static final int BULK_BATCH_SIZE = 500;
+    private static final int MAX_RELATIONSHIP_TARGETS = 200;
+
     private final GroupDAO groupDAO;
     private final UserDAO userDAO;
     private final PostDAO postDAO;
     private final BirdDAO birdDAO;
     private final PasswordEncoder passwordEncoder;
+    private final UserSearchService userSearchService;
+    private final FriendGraphService friendGraphService;
+    private final FriendSuggestionService friendSuggestionService;
+    private final MongoTemplate mongoTemplate;
     private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
     private final String bucketName;
     private final String profilePrefix;
 
@@ -55,8 +67,11 @@ public class UserService {
             BirdDAO birdDAO,
             PasswordEncoder passwordEncoder,
             GroupDAO groupDAO,
+            UserSearchService userSearchService,
+            FriendGraphService friendGraphService,
+            FriendSuggestionService friendSuggestionService,
+            MongoTemplate mongoTemplate,
             S3Client s3Client,
-            S3Presigner s3Presigner,
             @Value("${aws.s3.bucket:}") String bucketName,
             @Value("${aws.s3.profile-prefix:profile_pictures}") String profilePrefix
     ) {
@@ -65,8 +80,11 @@ public class UserService {
         this.postDAO = postDAO;
         this.birdDAO = birdDAO;
         this.passwordEncoder = passwordEncoder;
+        this.userSearchService = userSearchService;
+        this.friendGraphService = friendGraphService;
+        this.friendSuggestionService = friendSuggestionService;
+        this.mongoTemplate = mongoTemplate;
         this.s3Client = s3Client;
-        this.s3Presigner = s3Presigner;
         this.bucketName = bucketName;
         this.profilePrefix = profilePrefix;
     }
@@ -75,16 +93,17 @@ public class UserService {
         try{
             ObjectId objectId = new ObjectId(userId);
             User user = userDAO.findById(objectId).orElseThrow(() -> new IllegalArgumentException("User not found"));
-            user.setFirstName(firstName);
-            user.setLastName(lastName);
-            user.setLocation(location);
-            user.setOnboardingComplete(true);
+            Update update = new Update()
+                .set("firstName", firstName)
+                .set("lastName", lastName)
+                .set("location", location)
+                .set("onboardingComplete", true);
             if(profilePhoto != null && !profilePhoto.isEmpty()){
                 deleteProfileImageIfManaged(user.getProfilePic());
                 String imageKey = uploadProfileImageToS3(profilePhoto);
-                user.setProfilePic(imageKey);
+                update.set("profilePic", imageKey);
             }
-            userDAO.save(user);
+            userSearchService.index(setFields(objectId, update));
         } catch(IOException e) {
             throw new RuntimeException("Failed to save profile photo",e);
         }
@@ -103,15 +122,6 @@ public class UserService {
         return withResolvedProfilePic(user);
     }
 
-    public List<User> searchUsersByUsername(String query) {
-        List<User> allUsers = userDAO.findAll();
-        
-        return allUsers.stream()
-            .filter(user -> user.getUsername().toLowerCase().contains(query.toLowerCase()))
-            .map(this::withResolvedProfilePic)
-            .collect(Collectors.toList());
-    }
-
     public List<Group> getGroupsList(ObjectId userId) {
         User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found."));
         ObjectId[] groupIds = user.getGroups();
@@ -119,60 +129,56 @@ public class UserService {
         return groupDAO.findAllById(List.of(groupIds));
     } 
     
-    public List<Post> getPostsList(ObjectId userId) {
+    public List<PostSummaryDTO> getPostsList(ObjectId userId) {
         User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
         ObjectId[] postIds = user.getPosts();
-        return postDAO.findAllById(List.of(postIds));
+        return postDAO.findSummariesById(List.of(postIds));
     }
 
 public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
-    List<Post> userPosts = postDAO.findByUserId(userId);
-    LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-    
-    // Filter posts from this month that have a bird and a valid timestamp
+    LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    Date from = Date.from(startOfMonth.atZone(ZoneId.systemDefault()).toInstant());
+
+    // The post service filters by author and month; only bird and timestamp come back
+    List<Post> userPosts = postDAO.findByUserIdSince(userId, from);
+
     Map<ObjectId, Long> birdCounts = userPosts.stream()
-        .filter(post -> 
-            post.getTimestamp() != null && 
-            post.getBird() != null && // Only posts with birds
-            post.getTimestamp().toInstant()
-                .atZone(java.time.ZoneId.systemDefault())
-                .toLocalDateTime()
-                .isAfter(startOfMonth)
-        )
+        .filter(post -> post.getBird() != null) // Only posts with birds
         .collect(Collectors.groupingBy(Post::getBird, Collectors.counting()));
 
-    System.out.println("Bird counts for user " + userId + ": " + birdCounts);
-
     // If no birds found, return empty list
     if (birdCounts.isEmpty()) {
         return List.of();
     }
 
-    // Look up bird details for the top 5 birds
-    List<Map<String, Object>> topBirds = birdCounts.entrySet().stream()
+    List<Map.Entry<ObjectId, Long>> top = birdCounts.entrySet().stream()
         .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
         .limit(5)
+        .toList();
+
+    // Look up bird details for the top 5 birds in one call
+    Map<ObjectId, Bird> birdsById = birdDAO.findAllById(top.stream().map(Map.Entry::getKey).toList()).stream()
+        .filter(bird -> bird.getId() != null)
+        .collect(Collectors.toMap(Bird::getId, bird -> bird, (a, b) -> a));
+
+    List<Map<String, Object>> topBirds = top.stream()
         .map(entry -> {
-            try {
-                Bird bird = birdDAO.findById(entry.getKey()).orElse(null);
-                if (bird != null) {
-                    Map<String, Object> birdMap = new HashMap<>();
-                    birdMap.put("id", bird.getId());
-                    birdMap.put("commonName", bird.getCommonName());
-                    birdMap.put("scientificName", bird.getScientificName() != null ? bird.getScientificName() : "");
-                    birdMap.put("imageURL", bird.getImageURL() != null ? bird.getImageURL() : "");
-                    birdMap.put("count", (Object) entry.getValue());
-                    return birdMap;
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching bird " + entry.getKey() + ": " + e.getMessage());
+            Bird bird = birdsById.get(entry.getKey());
+            // A bird removed from the catalog since the sighting is left out
+            if (bird == null) {
+                return null;
             }
-            return null;
+            Map<String, Object> birdMap = new HashMap<>();
+            birdMap.put("id", bird.getId());
+            birdMap.put("commonName", bird.getCommonName());
+            birdMap.put("scientificName", bird.getScientificName() != null ? bird.getScientificName() : "");
+            birdMap.put("imageURL", bird.getImageURL() != null ? bird.getImageURL() : "");
+            birdMap.put("count", (Object) entry.getValue());
+            return birdMap;
         })
         .filter(map -> map != null)
         .collect(Collectors.toList());
-        System.out.println("Top birds (with details): " + topBirds);
-        return topBirds;
+    return topBirds;
     }
 
     public User registerUser(String username, String password){
@@ -185,6 +191,7 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
         User newUser = new User(username, hashedPassword);
 
         userDAO.insert(newUser);
+        userSearchService.index(newUser);
 
         return newUser;
     }
@@ -203,23 +210,25 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
         User existingUser = userDAO.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("User not found."));
 
-        existingUser.setUsername(updatedUser.getUsername());
+        Update update = new Update().set("username", updatedUser.getUsername());
 
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isBlank()) {
-            existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
+            update.set("password", passwordEncoder.encode(updatedUser.getPassword()));
         }
 
         if (imageFile != null && !imageFile.isEmpty()) {
             deleteProfileImageIfManaged(existingUser.getProfilePic());
             try {
                 String imageKey = uploadProfileImageToS3(imageFile);
-                existingUser.setProfilePic(imageKey);
+                update.set("profilePic", imageKey);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to store profile image", e);
             }
         }
 
-        return withResolvedProfilePic(userDAO.save(existingUser));
+        User saved = setFields(id, update);
+        userSearchService.index(saved);
+        return withResolvedProfilePic(saved);
     }
 
     public void deleteUser(ObjectId id){
@@ -228,12 +237,12 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
 
         deleteProfileImageIfManaged(existingUser.getProfilePic());
         userDAO.deleteById(id);
+        userSearchService.remove(id);
+        friendGraphService.removeUser(id);
+        friendSuggestionService.onUserRemoved(id);
     }
 
     public User updateUserRole(ObjectId userId, String newRoleString) {
-        User user = userDAO.findById(userId)
-            .orElseThrow(() -> new IllegalArgumentException("User not found."));
-        
         Role newRole;
         
         try {
@@ -242,63 +251,152 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
             throw new IllegalArgumentException("Invalid role: " + newRoleString);
         }
         
-        user.setRole(newRole);
-        return userDAO.save(user);
+        return setFields(userId, new Update().set("role", newRole));
     }
 
-    public void addFriend(ObjectId userId, ObjectId friendId) {
-        User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found."));
-        userDAO.findById(friendId).orElseThrow(() -> new IllegalArgumentException("Friend not found."));
-
-        ObjectId[] currentFriends = user.getFriends();
-        ObjectId[] updatedFriends = new ObjectId[currentFriends.length + 1];
-        System.arraycopy(currentFriends, 0, updatedFriends, 0, currentFriends.length);
-        updatedFriends[currentFriends.length] = friendId;
+    // $sets only the edited fields, so friendCount, posts and groups kept by their own atomic
+    // updates are never written back from a stale read; returns the user as written
+    private User setFields(ObjectId userId, Update update) {
+        User updated = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(userId)),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            User.class
+        );
+        if (updated == null) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        return updated;
+    }
 
-        user.setFriends(updatedFriends);
-        userDAO.save(user);
+    public void addFriend(ObjectId userId, ObjectId friendId) {
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        if (!userDAO.existsById(friendId)) {
+            throw new IllegalArgumentException("Friend not found.");
+        }
+        if (userId.equals(friendId)) {
+            throw new IllegalArgumentException("Users cannot friend themselves.");
+        }
+        if (friendGraphService.addFriend(userId, friendId)) {
+            friendSuggestionService.onFriendAdded(userId, friendId);
+        }
     }
 
+    // Single $addToSet: no read, and a retried callback can't add the group twice
     public void addGroup(ObjectId userId, ObjectId groupId) {
-        User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
-        ObjectId[] currentGroups = user.getGroups();
-        ObjectId[] updatedGroups = new ObjectId[currentGroups.length + 1];
-        System.arraycopy(currentGroups, 0, updatedGroups, 0, currentGroups.length);
-        updatedGroups[currentGroups.length] = groupId;
-        user.setGroups(updatedGroups);
-        userDAO.save(user);
+        addToSet(userId, "groups", List.of(groupId));
     }
 
     public void addPost(ObjectId userId, ObjectId postId) {
-        User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found"));
-        ObjectId[] currentPosts = user.getPosts();
-        ObjectId[] updatedPosts = new ObjectId[currentPosts.length + 1];
-        System.arraycopy(currentPosts, 0, updatedPosts, 0, currentPosts.length);
-        updatedPosts[currentPosts.length] = postId;
-        user.setPosts(updatedPosts);
-        userDAO.save(user);
+        addToSet(userId, "posts", List.of(postId));
+    }
+
+    // Seeding and migration: one unordered bulk write per batch of users; returns users matched
+    public long addGroups(Map<ObjectId, List<ObjectId>> groupIdsByUser) {
+        return addToSetBulk("groups", groupIdsByUser);
+    }
+
+    public long addPosts(Map<ObjectId, List<ObjectId>> postIdsByUser) {
+        return addToSetBulk("posts", postIdsByUser);
+    }
+
+    private void addToSet(ObjectId userId, String field, List<ObjectId> ids) {
+        UpdateResult result = mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(userId)),
+            new Update().addToSet(field).each(ids.toArray()),
+            User.class
+        );
+        if (result.getMatchedCount() == 0) {
+            throw new IllegalArgumentException("User not found");
+        }
+    }
+
+    private long addToSetBulk(String field, Map<ObjectId, List<ObjectId>> idsByUser) {
+        long matched = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (Map.Entry<ObjectId, List<ObjectId>> entry : idsByUser.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            bulk.updateOne(
+                new Query(Criteria.where("_id").is(entry.getKey())),
+                new Update().addToSet(field).each(entry.getValue().toArray())
+            );
+            if (++pending == BULK_BATCH_SIZE) {
+                matched += bulk.execute().getMatchedCount();
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            matched += bulk.execute().getMatchedCount();
+        }
+        return matched;
     }
 
     public void removeFriend(ObjectId userId, ObjectId friendId) {
-        User user = userDAO.findById(userId)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
-        ObjectId[] currentFriends = user.getFriends();
-        
-        ObjectId[] updatedFriends = java.util.Arrays.stream(currentFriends)
-            .filter(id -> !id.equals(friendId))
-            .toArray(ObjectId[]::new);
-        
-        user.setFriends(updatedFriends);
-        userDAO.save(user);
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (friendGraphService.removeFriend(userId, friendId)) {
+            friendSuggestionService.onFriendRemoved(userId, friendId);
+        }
+    }
+
+    // Users who have userId in their friends list; only edge ids are loaded
+    public List<String> getFollowerIds(ObjectId userId) {
+        return friendGraphService.getFollowerIds(userId).stream()
+                .map(ObjectId::toHexString)
+                .toList();
+    }
+
+    public List<String> getFriendIds(ObjectId userId) {
+        return friendGraphService.getFriendIds(userId).stream()
+                .map(ObjectId::toHexString)
+                .toList();
+    }
+
+    public List<RelationshipDTO> getRelationships(ObjectId viewerId, List<ObjectId> targetIds) {
+        if (!userDAO.existsById(viewerId)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        if (targetIds.size() > MAX_RELATIONSHIP_TARGETS) {
+            throw new IllegalArgumentException("At most " + MAX_RELATIONSHIP_TARGETS + " users can be looked up at once.");
+        }
+        return friendGraphService.getRelationships(viewerId, targetIds);
     }
 
     public List<User> getFriendsList(ObjectId userId) {
-        User user = userDAO.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found."));
-        ObjectId[] friendIds = user.getFriends();
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        List<ObjectId> friendIds = friendGraphService.getFriendIds(userId);
 
-        return userDAO.findAllById(List.of(friendIds)).stream().map(this::withResolvedProfilePic).toList();
-    } 
+        return userDAO.findAllById(friendIds).stream().map(this::withResolvedProfilePic).toList();
+    }
+
+    // Friends in id order after the given id; returns up to limit users
+    public List<User> getFriendsPage(ObjectId userId, ObjectId after, int limit) {
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found.");
+        }
+        List<ObjectId> friendIds = friendGraphService.getFriendIds(userId, after, limit);
+        if (friendIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<ObjectId, User> usersById = userDAO.findAllById(friendIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        // Edges to users deleted out from under them are skipped
+        return friendIds.stream()
+                .map(usersById::get)
+                .filter(user -> user != null)
+                .map(this::withResolvedProfilePic)
+                .toList();
+    }
 
     private String uploadProfileImageToS3(MultipartFile imageFile) throws IOException {
         requireS3Configured();
@@ -336,36 +434,21 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
             return null;
         }
 
-        String profilePic = user.getProfilePic();
+        user.setProfilePic(resolveProfilePic(user.getProfilePic()));
+        return user;
+    }
+
+    static String resolveProfilePic(String profilePic) {
         if (profilePic == null || profilePic.isBlank()) {
-            return user;
+            return profilePic;
         }
 
         if (profilePic.startsWith("http://") || profilePic.startsWith("https://") || profilePic.startsWith("/")) {
-            return user;
-        }
-
-        try {
-            requireS3Configured();
-
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(profilePic)
-                    .build();
-
-            GetObjectPresignRequest getObjectPresignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofHours(1))
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-
-            String presignedUrl = s3Presigner.presignGetObject(getObjectPresignRequest)
-                    .url()
-                    .toExternalForm();
-            user.setProfilePic(presignedUrl);
-        } catch (Exception ignored) {
+            return profilePic;
         }
 
-        return user;
+        // Stable path served by MediaController, which redirects to a presigned url
+        return MEDIA_PATH_PREFIX + profilePic;
     }
 
     private void deleteProfileImageIfManaged(String imageReference) {
@@ -392,115 +475,4 @@ public List<Map<String, Object>> getTopBirdsThisMonth(ObjectId userId) {
             throw new IllegalStateException("S3 bucket is not configured. Set AWS_S3_BUCKET.");
         }
     }
-
-    // User stats methods below
-
-    public Map<String, Object> getUserStats(ObjectId userId) {
-        User user = userDAO.findById(userId)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        List<Post> posts = postDAO.findAllById(List.of(user.getPosts()));
-
-        Map<String, Object> stats = new HashMap<>();
-
-        stats.put("totalSpottings", posts.size());
-        stats.put("firstSightingDate", calculateFirstSighting(posts));
-        stats.put("uniqueBirdsSpotted", calculateUniqueBirds(posts));
-        stats.put("mostSpottedBird", calculateMostSpottedBird(posts));
-        stats.put("topBirdsAllTime", topBirdsAllTime(posts));
-        stats.put("topBirdsThisMonth", topBirdsThisMonth(posts));
-        stats.put("badges", calculateBadges(stats));
-
-        return stats;
-    }
-
-    private Date calculateFirstSighting(List<Post> posts) {
-        return posts.stream()
-                .map(Post::getTimestamp)
-                .min(Date::compareTo)
-                .orElse(null);
-    }
-
-    private int calculateUniqueBirds(List<Post> posts){
-        return (int) posts.stream()
-            .map(Post::getBird)
-            .filter(Objects::nonNull)
-            .distinct()
-            .count();
-    }
-
-    private ObjectId calculateMostSpottedBird(List<Post> posts) {
-        return posts.stream()
-            .map(Post::getBird)
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(b -> b, Collectors.counting()))
-            .entrySet()
-            .stream()
-            .max(Map.Entry.comparingByValue())
-            .map(Map.Entry::getKey)
-            .orElse(null);
-    }
-
-    private List<Map<String, Object>> topBirdsAllTime(List<Post> posts) {
-        Map<ObjectId, Long> counts = posts.stream()
-            .map(Post::getBird)
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(b -> b, Collectors.counting()));
-
-        return counts.entrySet().stream()
-            .sorted(Map.Entry.<ObjectId, Long>comparingByValue().reversed())
-            .map(entry -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("birdId", entry.getKey());
-                map.put("count", entry.getValue());
-                return map;
-            })
-            .toList();
-    }
-
-
-    private List<Map<String, Object>> topBirdsThisMonth(List<Post> posts) {
-        YearMonth currentMonth = YearMonth.now();
-
-        Map<ObjectId, Long> counts = posts.stream()
-            .filter(post -> {
-                LocalDate date = post.getTimestamp()
-                    .toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDate();
-                    return YearMonth.from(date).equals(currentMonth);
-            })
-            .map(Post::getBird)
-            .filter(Objects::nonNull)
-            .collect(Collectors.groupingBy(b -> b, Collectors.counting()));
-
-        return counts.entrySet().stream()
-            .sorted(Map.Entry.<ObjectId, Long>comparingByValue().reversed())
-            .map(entry -> {
-                Map<String, Object> map = new HashMap<>();
-                map.put("birdId", entry.getKey());
-                map.put("count", entry.getValue());
-                return map;
-            })
-            .toList();
-    }
-
-    public List<String> calculateBadges(Map<String, Object> stats) {
-        List<String> badges = new ArrayList<>();
-
-        int totalSpottings = (int) stats.getOrDefault("totalSpottings", 0);
-        int uniqueBirds = (int) stats.getOrDefault("uniqueBirdsSpotted", 0);
-
-        if (totalSpottings >= 1) {
-            badges.add("First Sighting");
-        }
-        else if (uniqueBirds >= 10) {
-            badges.add("Bird Collector");
-        }
-        else if (totalSpottings >= 50) {
-            badges.add("Popular Spotter");
-        }
-        
-        return badges;
-    }
 }
@@ -0,0 +1,23 @@
+package com.user.user.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly full recount of every user's stats rollup. Users without a rollup
+ * are also backfilled lazily on their first stats read or sighting event.
+ */
+@Component
+public class UserStatsRebuild {
+
+    private final UserStatsService userStatsService;
+
+    public UserStatsRebuild(UserStatsService userStatsService) {
+        this.userStatsService = userStatsService;
+    }
+
+    @Scheduled(cron = "${user.stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        userStatsService.rebuildAll();
+    }
+}
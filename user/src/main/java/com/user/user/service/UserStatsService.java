@@ -0,0 +1,247 @@
+package com.user.user.service;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.user.user.models.Post;
+import com.user.user.models.SightingEvent;
+import com.user.user.models.UserStats;
+import com.user.user.repository.PostDAO;
+import com.user.user.repository.UserDAO;
+
+@Service
+public class UserStatsService {
+
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserDAO userDAO;
+    private final PostDAO postDAO;
+
+    public UserStatsService(MongoTemplate mongoTemplate, UserDAO userDAO, PostDAO postDAO) {
+        this.mongoTemplate = mongoTemplate;
+        this.userDAO = userDAO;
+        this.postDAO = postDAO;
+    }
+
+    public Map<String, Object> getUserStats(ObjectId userId) {
+        UserStats rollup = mongoTemplate.findById(userId, UserStats.class);
+        if (rollup == null) {
+            rollup = rebuild(userId);
+        }
+
+        Map<String, Integer> birdCounts = positiveCounts(rollup.getBirdCounts());
+        Map<String, Integer> thisMonth = positiveCounts(
+            rollup.getMonthlyBirdCounts().getOrDefault(monthKey(new Date()), Map.of())
+        );
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalSpottings", Math.max(0, rollup.getTotalSpottings()));
+        stats.put("firstSightingDate", rollup.getFirstSighting());
+        stats.put("uniqueBirdsSpotted", birdCounts.size());
+        stats.put("mostSpottedBird", birdCounts.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(entry -> new ObjectId(entry.getKey()))
+            .orElse(null));
+        stats.put("topBirdsAllTime", ranked(birdCounts));
+        stats.put("topBirdsThisMonth", ranked(thisMonth));
+        stats.put("badges", calculateBadges(stats));
+
+        return stats;
+    }
+
+    public void recordSighting(ObjectId userId, SightingEvent event) {
+        Query byUser = new Query(Criteria.where("_id").is(userId));
+
+        // The first event for a user seeds the rollup from their whole history
+        if (!mongoTemplate.exists(byUser, UserStats.class)) {
+            rebuild(userId);
+            return;
+        }
+
+        int delta = event.getDelta() < 0 ? -1 : 1;
+        String month = event.getTimestamp() == null ? null : monthKey(event.getTimestamp());
+
+        Update update = new Update().inc("totalSpottings", delta).inc("revision", 1);
+        if (month != null) {
+            update.inc("monthlyTotals." + month, delta);
+        }
+        if (event.getBird() != null) {
+            String bird = event.getBird().toHexString();
+            update.inc("birdCounts." + bird, delta);
+            if (month != null) {
+                update.inc("monthlyBirdCounts." + month + "." + bird, delta);
+            }
+        }
+        if (delta > 0 && event.getTimestamp() != null) {
+            update.min("firstSighting", event.getTimestamp());
+        }
+
+        byUser.fields().include("firstSighting");
+        UserStats before = mongoTemplate.findAndModify(byUser, update, FindAndModifyOptions.options().returnNew(false), UserStats.class);
+
+        // $min can't be undone, so losing the earliest sighting needs a recount
+        if (delta < 0 && before != null && event.getTimestamp() != null
+                && event.getTimestamp().equals(before.getFirstSighting())) {
+            rebuild(userId);
+        }
+    }
+
+    // Recomputes the rollup from the post service; also repairs drift from missed events.
+    // The revision is read before the posts, and the result is written only if no event
+    // moved it since, so an $inc that lands mid-count makes the rebuild start over
+    // instead of being overwritten.
+    public UserStats rebuild(ObjectId userId) {
+        if (!userDAO.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Query byUser = new Query(Criteria.where("_id").is(userId));
+            byUser.fields().include("revision");
+            UserStats current = mongoTemplate.findOne(byUser, UserStats.class);
+
+            UserStats rollup = countPosts(userId);
+            rollup.setRevision(current == null ? 0 : current.getRevision());
+            if (writeIfUnchanged(current, rollup)) {
+                return rollup;
+            }
+            if (attempt == MAX_REBUILD_ATTEMPTS) {
+                // Events kept arriving while counting; the rollup they left behind is current
+                System.err.println("Stats rebuild for user " + userId + " gave way to concurrent events");
+                return mongoTemplate.findById(userId, UserStats.class);
+            }
+        }
+    }
+
+    private UserStats countPosts(ObjectId userId) {
+        UserStats rollup = new UserStats();
+        rollup.setId(userId);
+        for (Post post : postDAO.findAllByUserId(userId)) {
+            rollup.setTotalSpottings(rollup.getTotalSpottings() + 1);
+
+            Date timestamp = post.getTimestamp();
+            String month = timestamp == null ? null : monthKey(timestamp);
+            if (timestamp != null && (rollup.getFirstSighting() == null || timestamp.before(rollup.getFirstSighting()))) {
+                rollup.setFirstSighting(timestamp);
+            }
+            if (month != null) {
+                rollup.getMonthlyTotals().merge(month, 1, Integer::sum);
+            }
+            if (post.getBird() != null) {
+                String bird = post.getBird().toHexString();
+                rollup.getBirdCounts().merge(bird, 1, Integer::sum);
+                if (month != null) {
+                    rollup.getMonthlyBirdCounts().computeIfAbsent(month, key -> new HashMap<>()).merge(bird, 1, Integer::sum);
+                }
+            }
+        }
+        rollup.setRebuiltAt(new Date());
+        return rollup;
+    }
+
+    private boolean writeIfUnchanged(UserStats current, UserStats rollup) {
+        if (current == null) {
+            try {
+                mongoTemplate.insert(rollup);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+
+        // Rollups written before the revision field existed match revision 0
+        Criteria unchanged = Criteria.where("_id").is(rollup.getId());
+        if (current.getRevision() == 0) {
+            unchanged.orOperator(Criteria.where("revision").exists(false), Criteria.where("revision").is(0L));
+        } else {
+            unchanged.and("revision").is(current.getRevision());
+        }
+        Update update = new Update()
+            .set("totalSpottings", rollup.getTotalSpottings())
+            .set("firstSighting", rollup.getFirstSighting())
+            .set("birdCounts", rollup.getBirdCounts())
+            .set("monthlyTotals", rollup.getMonthlyTotals())
+            .set("monthlyBirdCounts", rollup.getMonthlyBirdCounts())
+            .set("rebuiltAt", rollup.getRebuiltAt());
+        return mongoTemplate.updateFirst(new Query(unchanged), update, UserStats.class).getMatchedCount() > 0;
+    }
+
+    public void rebuildAll() {
+        Query allUsers = new Query();
+        allUsers.fields().include("_id");
+
+        try (Stream<Document> users = mongoTemplate.stream(allUsers, Document.class, "users")) {
+            users.forEach(user -> {
+                ObjectId userId = user.getObjectId("_id");
+                try {
+                    rebuild(userId);
+                } catch (Exception e) {
+                    System.err.println("Error rebuilding stats for user " + userId + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    public List<String> calculateBadges(Map<String, Object> stats) {
+        List<String> badges = new ArrayList<>();
+
+        int totalSpottings = (int) stats.getOrDefault("totalSpottings", 0);
+        int uniqueBirds = (int) stats.getOrDefault("uniqueBirdsSpotted", 0);
+
+        if (totalSpottings >= 1) {
+            badges.add("First Sighting");
+        }
+        else if (uniqueBirds >= 10) {
+            badges.add("Bird Collector");
+        }
+        else if (totalSpottings >= 50) {
+            badges.add("Popular Spotter");
+        }
+        
+        return badges;
+    }
+
+    private String monthKey(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).format(MONTH_KEY);
+    }
+
+    private Map<String, Integer> positiveCounts(Map<String, Integer> counts) {
+        Map<String, Integer> positive = new HashMap<>();
+        counts.forEach((bird, count) -> {
+            if (count != null && count > 0) {
+                positive.put(bird, count);
+            }
+        });
+        return positive;
+    }
+
+    private List<Map<String, Object>> ranked(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .map(entry -> {
+                Map<String, Object> map = new HashMap<>();
+                map.put("birdId", new ObjectId(entry.getKey()));
+                map.put("count", entry.getValue().longValue());
+                return map;
+            })
+            .toList();
+    }
+}
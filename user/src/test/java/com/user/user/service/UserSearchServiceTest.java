@@ -0,0 +1,54 @@
+package com.user.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.user.user.models.User;
+import com.user.user.models.UserSearchEntry;
+import com.user.user.models.UserSearchResultDTO;
+import com.user.user.support.MongoTestSupport;
+
+class UserSearchServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private UserSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        MongoTestSupport.createIndexes(mongoTemplate, UserSearchEntry.class);
+        service = new UserSearchService(mongoTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void rebuildIndexesMissingUsersAndDropsDeletedOnes() {
+        User kept = mongoTemplate.insert(new User("robin", "secret"));
+        service.index(kept);
+        User deleted = new User("rook", "secret");
+        deleted.setId(new ObjectId());
+        service.index(deleted);
+        mongoTemplate.insert(new User("raven", "secret"));
+        mongoTemplate.insert(new User("redstart", "secret"));
+
+        service.rebuildIfIncomplete();
+
+        assertEquals(3, mongoTemplate.count(new Query(), UserSearchEntry.class));
+        assertEquals(List.of("raven", "redstart", "robin"), service.search("r", 10).stream()
+                .map(UserSearchResultDTO::username)
+                .sorted()
+                .toList());
+    }
+}
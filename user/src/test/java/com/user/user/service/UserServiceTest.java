@@ -0,0 +1,162 @@
+package com.user.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.user.user.models.Role;
+import com.user.user.models.User;
+import com.user.user.repository.BirdDAO;
+import com.user.user.repository.GroupDAO;
+import com.user.user.repository.PostDAO;
+import com.user.user.repository.UserDAO;
+import com.user.user.support.MongoTestSupport;
+
+import software.amazon.awssdk.services.s3.S3Client;
+
+class UserServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private UserService service;
+    private ObjectId userId;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        UserDAO realDAO = new MongoRepositoryFactory(mongoTemplate).getRepository(UserDAO.class);
+        UserDAO userDAO = mock(UserDAO.class, AdditionalAnswers.delegatesTo(realDAO));
+
+        // Every read of the user is followed by a friend added from another request
+        doAnswer(invocation -> {
+            Object read = realDAO.findById(invocation.getArgument(0));
+            addFriendElsewhere();
+            return read;
+        }).when(userDAO).findById(any());
+
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hashed");
+
+        service = new UserService(
+                userDAO,
+                mock(PostDAO.class),
+                mock(BirdDAO.class),
+                passwordEncoder,
+                mock(GroupDAO.class),
+                new UserSearchService(mongoTemplate),
+                new FriendGraphService(mongoTemplate),
+                mock(FriendSuggestionService.class),
+                mongoTemplate,
+                mock(S3Client.class),
+                "",
+                "profile_pictures"
+        );
+        userId = mongoTemplate.insert(new User("robin", "secret")).getId();
+        addFriendElsewhere();
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void updateUserKeepsAConcurrentFriendCount() {
+        User edit = new User("robinhood", "Secret1!");
+
+        User saved = service.updateUser(userId, edit, null);
+
+        assertEquals("robinhood", saved.getUsername());
+        assertEquals("hashed", saved.getPassword());
+        assertEquals(2, stored().getFriendCount());
+    }
+
+    @Test
+    void completeOnboardingKeepsAConcurrentFriendCount() {
+        service.completeOnboarding(userId.toHexString(), "Robin", "Redbreast", "Leeds", null);
+
+        User stored = stored();
+        assertEquals("Robin", stored.getFirstName());
+        assertTrue(stored.getOnboardingComplete());
+        assertEquals(2, stored.getFriendCount());
+    }
+
+    @Test
+    void updateUserRoleKeepsTheFriendCount() {
+        User saved = service.updateUserRole(userId, "ADMIN_USER");
+
+        assertEquals(Role.ADMIN_USER, saved.getRole());
+        assertEquals(1, stored().getFriendCount());
+    }
+
+    @Test
+    void concurrentPostAndGroupAddsAreAllKept() throws Exception {
+        int threads = 8;
+        int addsPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<ObjectId>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<ObjectId> added = new ArrayList<>();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        ObjectId id = new ObjectId();
+                        service.addPost(userId, id);
+                        // A retried callback must not add the same id twice
+                        service.addPost(userId, id);
+                        service.addGroup(userId, id);
+                        added.add(id);
+                    }
+                    return added;
+                }));
+            }
+            // Profile edits interleaved with the adds must not write back a stale list
+            for (int i = 0; i < 10; i++) {
+                service.updateUserRole(userId, i % 2 == 0 ? "ADMIN_USER" : "BASIC_USER");
+                service.updateUser(userId, new User("robin" + i, null), null);
+            }
+
+            Set<ObjectId> expected = new HashSet<>();
+            for (Future<List<ObjectId>> future : futures) {
+                expected.addAll(future.get());
+            }
+
+            User stored = stored();
+            assertEquals(threads * addsPerThread, stored.getPosts().length);
+            assertEquals(expected, Set.of(stored.getPosts()));
+            assertEquals(expected, Set.of(stored.getGroups()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void addFriendElsewhere() {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), new Update().inc("friendCount", 1), User.class);
+    }
+
+    private User stored() {
+        return mongoTemplate.findById(userId, User.class);
+    }
+}
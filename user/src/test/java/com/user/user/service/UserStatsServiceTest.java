@@ -0,0 +1,123 @@
+package com.user.user.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.user.user.models.Post;
+import com.user.user.models.SightingEvent;
+import com.user.user.models.UserStats;
+import com.user.user.repository.PostDAO;
+import com.user.user.repository.UserDAO;
+import com.user.user.support.MongoTestSupport;
+
+class UserStatsServiceTest {
+
+    private final ObjectId userId = new ObjectId();
+    private final ObjectId bird = new ObjectId();
+    private final List<Post> posts = new CopyOnWriteArrayList<>();
+
+    private MongoTemplate mongoTemplate;
+    private PostDAO postDAO;
+    private UserStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = MongoTestSupport.template();
+        UserDAO userDAO = mock(UserDAO.class);
+        when(userDAO.existsById(any())).thenReturn(true);
+        postDAO = mock(PostDAO.class);
+        service = new UserStatsService(mongoTemplate, userDAO, postDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MongoTestSupport.drop(mongoTemplate);
+    }
+
+    @Test
+    void sightingDuringRebuildIsNotOverwritten() {
+        posts.add(post(new Date(1_000)));
+        when(postDAO.findAllByUserId(userId)).thenAnswer(invocation -> List.copyOf(posts));
+        service.rebuild(userId);
+
+        // The first count sees one post; a second post and its event land before the count is written
+        AtomicBoolean raced = new AtomicBoolean();
+        when(postDAO.findAllByUserId(userId)).thenAnswer(invocation -> {
+            List<Post> snapshot = List.copyOf(posts);
+            if (raced.compareAndSet(false, true)) {
+                Post added = post(new Date(2_000));
+                posts.add(added);
+                service.recordSighting(userId, event(added, 1));
+            }
+            return snapshot;
+        });
+        service.rebuild(userId);
+
+        UserStats stored = mongoTemplate.findById(userId, UserStats.class);
+        assertEquals(2, stored.getTotalSpottings());
+        assertEquals(2, stored.getBirdCounts().get(bird.toHexString()));
+    }
+
+    @Test
+    void rebuildOfALegacyRollupWithoutRevisionStillWrites() {
+        UserStats legacy = new UserStats();
+        legacy.setId(userId);
+        legacy.setTotalSpottings(7);
+        mongoTemplate.save(legacy);
+        mongoTemplate.getCollection("user_stats").updateOne(
+            new Document("_id", userId), new Document("$unset", new Document("revision", "")));
+
+        posts.add(post(new Date(1_000)));
+        when(postDAO.findAllByUserId(userId)).thenAnswer(invocation -> List.copyOf(posts));
+        service.rebuild(userId);
+
+        assertEquals(1, mongoTemplate.findById(userId, UserStats.class).getTotalSpottings());
+    }
+
+    @Test
+    void eventsAfterARebuildAreCounted() {
+        posts.add(post(new Date(1_000)));
+        when(postDAO.findAllByUserId(userId)).thenAnswer(invocation -> List.copyOf(posts));
+        service.recordSighting(userId, event(posts.get(0), 1));
+
+        Post added = post(new Date(2_000));
+        posts.add(added);
+        service.recordSighting(userId, event(added, 1));
+        service.recordSighting(userId, event(added, -1));
+
+        UserStats stored = mongoTemplate.findById(userId, UserStats.class);
+        assertEquals(1, stored.getTotalSpottings());
+        assertEquals(2, stored.getRevision());
+    }
+
+    private Post post(Date timestamp) {
+        Post post = new Post();
+        post.setId(new ObjectId());
+        post.setUserId(userId);
+        post.setBird(bird);
+        post.setTimestamp(timestamp);
+        return post;
+    }
+
+    private SightingEvent event(Post post, int delta) {
+        SightingEvent event = new SightingEvent();
+        event.setBird(post.getBird());
+        event.setTimestamp(post.getTimestamp());
+        event.setDelta(delta);
+        return event;
+    }
+}